@@ -0,0 +1,47 @@
+package ua.reed.aws.s3.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks once per concurrency level, as JMH takes a single thread count per run. Reports throughput,
+ * latency percentiles (sample mode) and the allocation rate of the GC profiler, one JSON result file per level.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec [-Djmh.include=PreSign] [-Djmh.threads=1,4,16]}
+ */
+public class BenchmarkRunner {
+
+    public static void main(final String[] args) throws RunnerException {
+        String include = System.getProperty("jmh.include", ".*");
+        int[] threadCounts = Arrays.stream(System.getProperty("jmh.threads", "1,4,16").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(BenchmarkRunner.class.getPackageName() + "." + include)
+                    .mode(Mode.Throughput)
+                    .mode(Mode.SampleTime)
+                    .timeUnit(TimeUnit.MICROSECONDS)
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(5))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(5))
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-result-" + threads + "-threads.json");
+            new Runner(options.build()).run();
+        }
+    }
+}
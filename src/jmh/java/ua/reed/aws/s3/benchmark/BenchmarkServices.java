@@ -0,0 +1,102 @@
+package ua.reed.aws.s3.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import ua.reed.aws.s3.cache.ObjectMetadataCache;
+import ua.reed.aws.s3.cache.PreSignedUrlCache;
+import ua.reed.aws.s3.config.PreSignedUrlProperties;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.metrics.HttpConnectionPoolMetrics;
+import ua.reed.aws.s3.service.impl.S3ArchiveWriter;
+import ua.reed.aws.s3.service.impl.S3BatchDeleter;
+import ua.reed.aws.s3.service.impl.S3BulkTagger;
+import ua.reed.aws.s3.service.impl.S3MultipartUploader;
+import ua.reed.aws.s3.service.impl.S3ObjectCopier;
+import ua.reed.aws.s3.service.impl.S3ObjectService;
+import ua.reed.aws.s3.service.impl.S3PreSignedUrlService;
+import ua.reed.aws.s3.service.impl.S3RangedDownloader;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wires the services the way the application context does, on top of the given client and without Spring,
+ * so a benchmark starts in milliseconds and measures nothing but the service code.
+ */
+public class BenchmarkServices implements AutoCloseable {
+
+    public static final String BUCKET_NAME = "benchmark-bucket";
+
+    private final S3Presigner s3Presigner;
+    private final SdkHttpClient preSignedUrlHttpClient;
+    private final ExecutorService transferExecutor;
+    private final S3PreSignedUrlService preSignedUrlService;
+    private final S3ObjectService objectService;
+
+    public BenchmarkServices(final S3Client s3Client, final S3CacheProperties cacheProperties) {
+        S3TransferProperties transferProperties = new S3TransferProperties();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.s3Presigner = S3Presigner.builder()
+                .region(Region.EU_NORTH_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("benchmark", "benchmark")))
+                .build();
+        this.preSignedUrlHttpClient = ApacheHttpClient.create();
+        this.transferExecutor = Executors.newFixedThreadPool(transferProperties.getExecutorThreads());
+        this.preSignedUrlService = new S3PreSignedUrlService(
+                this.s3Presigner,
+                new PreSignedUrlCache(cacheProperties, meterRegistry),
+                new PreSignedUrlProperties(),
+                meterRegistry
+        );
+        this.objectService = new S3ObjectService(
+                s3Client,
+                this.preSignedUrlService,
+                new S3MultipartUploader(s3Client, transferProperties, this.transferExecutor),
+                new S3RangedDownloader(s3Client, transferProperties, this.transferExecutor),
+                new S3BatchDeleter(s3Client, transferProperties, this.transferExecutor),
+                new S3BulkTagger(s3Client, transferProperties, this.transferExecutor),
+                new S3ArchiveWriter(s3Client, transferProperties, this.transferExecutor),
+                new S3ObjectCopier(s3Client, transferProperties, this.transferExecutor),
+                new ObjectMetadataCache(cacheProperties, meterRegistry),
+                transferProperties,
+                this.preSignedUrlHttpClient,
+                new HttpConnectionPoolMetrics("benchmark", meterRegistry),
+                meterRegistry
+        );
+    }
+
+    /**
+     * Caches with a zero time-to-live, so every call reaches the client.
+     */
+    public static S3CacheProperties disabledCaches() {
+        S3CacheProperties cacheProperties = new S3CacheProperties();
+        cacheProperties.getObjectInfo().setTimeToLive(Duration.ZERO);
+        cacheProperties.getObjectInfo().setNegativeTimeToLive(Duration.ZERO);
+        cacheProperties.getPreSignedUrl().setTimeToLive(Duration.ZERO);
+        return cacheProperties;
+    }
+
+    public S3ObjectService objectService() {
+        return this.objectService;
+    }
+
+    public S3PreSignedUrlService preSignedUrlService() {
+        return this.preSignedUrlService;
+    }
+
+    @Override
+    public void close() {
+        this.transferExecutor.shutdownNow();
+        this.preSignedUrlHttpClient.close();
+        this.s3Presigner.close();
+    }
+}
@@ -0,0 +1,44 @@
+package ua.reed.aws.s3.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.dto.ObjectInfoDto;
+import ua.reed.aws.s3.perf.InMemoryS3Client;
+
+/**
+ * HEAD of an object through the metadata cache and straight to the client.
+ */
+@State(Scope.Benchmark)
+public class ObjectInfoBenchmark {
+
+    private static final String OBJECT_KEY = "benchmark/object";
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private BenchmarkServices services;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryS3Client s3Client = new InMemoryS3Client();
+        s3Client.createBucket(BenchmarkServices.BUCKET_NAME);
+        s3Client.putObject(BenchmarkServices.BUCKET_NAME, OBJECT_KEY, new byte[1024]);
+        this.services = new BenchmarkServices(s3Client, this.cached ? new S3CacheProperties() : BenchmarkServices.disabledCaches());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.services.close();
+    }
+
+    @Benchmark
+    public ObjectInfoDto getObjectInfo() {
+        return this.services.objectService().getObjectInfo(BenchmarkServices.BUCKET_NAME, OBJECT_KEY);
+    }
+}
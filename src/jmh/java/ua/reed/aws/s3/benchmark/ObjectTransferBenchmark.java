@@ -0,0 +1,65 @@
+package ua.reed.aws.s3.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockMultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.perf.InMemoryS3Client;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Upload and download of a whole object. 32MB is above the multipart threshold, so it measures the multipart
+ * upload, the smaller sizes a single PutObject.
+ */
+@State(Scope.Benchmark)
+public class ObjectTransferBenchmark {
+
+    private static final String OBJECT_KEY = "benchmark/object";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Param({"1024", "1048576", "33554432"})
+    private int objectSize;
+
+    private BenchmarkServices services;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] content = new byte[this.objectSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        InMemoryS3Client s3Client = new InMemoryS3Client();
+        s3Client.createBucket(BenchmarkServices.BUCKET_NAME);
+        s3Client.putObject(BenchmarkServices.BUCKET_NAME, OBJECT_KEY, content);
+        this.services = new BenchmarkServices(s3Client, new S3CacheProperties());
+        this.file = new MockMultipartFile("file", "object.bin", "application/octet-stream", content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.services.close();
+    }
+
+    @Benchmark
+    public void createObject() {
+        this.services.objectService().createObject(BenchmarkServices.BUCKET_NAME, "benchmark/upload-" + Thread.currentThread().getId(), this.file);
+    }
+
+    @Benchmark
+    public long getObject() throws IOException {
+        ResponseInputStream<GetObjectResponse> objectStream = this.services.objectService().getObject(BenchmarkServices.BUCKET_NAME, OBJECT_KEY);
+        try (objectStream) {
+            return S3Utils.copy(objectStream, OutputStream.nullOutputStream(), COPY_BUFFER_SIZE);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ua.reed.aws.s3.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
+import ua.reed.aws.s3.perf.InMemoryS3Client;
+import ua.reed.aws.s3.service.model.PreSignedUrlOptions;
+
+import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Signing of a url for one of {@code keys} distinct keys, with and without the url cache.
+ * Upload urls are never cached, they measure the signing alone.
+ */
+@State(Scope.Benchmark)
+public class PreSignBenchmark {
+
+    @Param({"GET_OBJECT", "PUT_OBJECT"})
+    private PreSignedUrlOperationType operationType;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    @Param({"100"})
+    private int keys;
+
+    private BenchmarkServices services;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.services = new BenchmarkServices(new InMemoryS3Client(), this.cached ? new S3CacheProperties() : BenchmarkServices.disabledCaches());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.services.close();
+    }
+
+    @Benchmark
+    public URL generatePreSignedUrlForObject() {
+        return this.services.preSignedUrlService().generatePreSignedUrlForObject(
+                PreSignedUrlOptions.builder()
+                        .bucketName(BenchmarkServices.BUCKET_NAME)
+                        .objectKey("benchmark/object-" + ThreadLocalRandom.current().nextInt(this.keys))
+                        .operationType(this.operationType)
+                        .build()
+        );
+    }
+}
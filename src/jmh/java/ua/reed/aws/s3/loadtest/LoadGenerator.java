@@ -0,0 +1,180 @@
+package ua.reed.aws.s3.loadtest;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sends requests of a scenario from a fixed number of threads, each one waiting for its response before sending
+ * the next one, for a given time. The application runs in the same JVM, so the heap and GC figures are its own
+ * (plus the generator's, which allocates little besides the latency samples).
+ */
+class LoadGenerator implements AutoCloseable {
+
+    private final LoadScenario.LoadTarget target;
+    private final HttpClient httpClient;
+    private final ExecutorService clientExecutor;
+
+    LoadGenerator(final LoadScenario.LoadTarget target) {
+        this.target = target;
+        this.clientExecutor = Executors.newCachedThreadPool();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(this.clientExecutor)
+                .build();
+    }
+
+    /**
+     * Uploads every object the other scenarios read.
+     */
+    void seed() throws IOException, InterruptedException {
+        for (int sequence = 0; sequence < this.target.objectCount(); sequence++) {
+            int status = this.httpClient.send(LoadScenario.UPLOAD.request(this.target, sequence), HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 400) {
+                throw new IllegalStateException("Seeding object %s failed with status %d".formatted(this.target.objectKey(sequence), status));
+            }
+        }
+    }
+
+    LoadResult run(final LoadScenario scenario, final int threads, final Duration duration) throws InterruptedException {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try {
+            List<Future<Samples>> futures = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                int offset = worker;
+                futures.add(workers.submit(() -> drive(scenario, offset, threads, deadline)));
+            }
+            Samples samples = new Samples();
+            for (Future<Samples> future : futures) {
+                samples.addAll(future.get());
+            }
+            long elapsed = System.nanoTime() - start;
+            return new LoadResult(
+                    scenario,
+                    threads,
+                    samples.size() + samples.errors(),
+                    samples.errors(),
+                    (samples.size() + samples.errors()) / (elapsed / 1e9),
+                    samples.percentile(0.5),
+                    samples.percentile(0.99),
+                    samples.percentile(1.0),
+                    gcCount() - gcCount,
+                    gcTime() - gcTime,
+                    heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum()
+            );
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Load generator thread failed", ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Workers take interleaved sequence numbers, so concurrent requests address different objects.
+     */
+    private Samples drive(final LoadScenario scenario, final int offset, final int stride, final long deadline) {
+        Samples samples = new Samples();
+        for (long sequence = offset; System.nanoTime() < deadline; sequence += stride) {
+            long start = System.nanoTime();
+            try {
+                int status = this.httpClient.send(scenario.request(this.target, sequence), HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 400) {
+                    samples.error();
+                } else {
+                    samples.add(System.nanoTime() - start);
+                }
+            } catch (IOException ex) {
+                samples.error();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return samples;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    @Override
+    public void close() {
+        this.clientExecutor.shutdownNow();
+    }
+
+    /**
+     * Latencies of the successful requests in nanoseconds, and the number of failed ones.
+     */
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+        private boolean sorted;
+
+        void add(final long latency) {
+            if (this.size == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.size * 2);
+            }
+            this.latencies[this.size++] = latency;
+            this.sorted = false;
+        }
+
+        void addAll(final Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.latencies[i]);
+            }
+            this.errors += other.errors;
+        }
+
+        void error() {
+            this.errors++;
+        }
+
+        long size() {
+            return this.size;
+        }
+
+        long errors() {
+            return this.errors;
+        }
+
+        Duration percentile(final double quantile) {
+            if (this.size == 0) {
+                return Duration.ZERO;
+            }
+            if (!this.sorted) {
+                Arrays.sort(this.latencies, 0, this.size);
+                this.sorted = true;
+            }
+            int index = (int) Math.ceil(quantile * this.size) - 1;
+            return Duration.ofNanos(this.latencies[Math.max(0, index)]);
+        }
+    }
+}
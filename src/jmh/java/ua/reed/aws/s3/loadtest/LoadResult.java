@@ -0,0 +1,48 @@
+package ua.reed.aws.s3.loadtest;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Outcome of one scenario at one concurrency level. Latencies are of the successful requests only.
+ *
+ * @param gcTime       milliseconds spent in garbage collection during the run
+ * @param heapPeakUsed highest heap usage during the run in bytes, summed over the heap pools
+ */
+record LoadResult(LoadScenario scenario,
+                  int threads,
+                  long requests,
+                  long errors,
+                  double requestsPerSecond,
+                  Duration p50,
+                  Duration p99,
+                  Duration max,
+                  long gcCount,
+                  long gcTime,
+                  long heapPeakUsed) {
+
+    static final String HEADER = "%-12s %7s %9s %7s %10s %9s %9s %9s %7s %9s %10s"
+            .formatted("scenario", "threads", "requests", "errors", "rps", "p50 ms", "p99 ms", "max ms", "gcs", "gc ms", "heap MB");
+
+    static final String CSV_HEADER = "scenario,threads,requests,errors,rps,p50_ms,p99_ms,max_ms,gc_count,gc_ms,heap_peak_bytes";
+
+    String toRow() {
+        return "%-12s %7d %9d %7d %10.1f %9.2f %9.2f %9.2f %7d %9d %10d".formatted(
+                this.scenario, this.threads, this.requests, this.errors, this.requestsPerSecond,
+                millis(this.p50), millis(this.p99), millis(this.max), this.gcCount, this.gcTime, this.heapPeakUsed >> 20
+        );
+    }
+
+    String toCsv() {
+        return String.format(
+                Locale.ROOT,
+                "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%d,%d,%d",
+                this.scenario, this.threads, this.requests, this.errors, this.requestsPerSecond,
+                millis(this.p50), millis(this.p99), millis(this.max), this.gcCount, this.gcTime, this.heapPeakUsed
+        );
+    }
+
+    private static double millis(final Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
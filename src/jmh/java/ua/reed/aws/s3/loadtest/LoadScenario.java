@@ -0,0 +1,105 @@
+package ua.reed.aws.s3.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * REST calls the load generator can drive. Every request addresses one of the seeded objects, chosen by its sequence number.
+ */
+public enum LoadScenario {
+
+    UPLOAD {
+        @Override
+        HttpRequest request(final LoadTarget target, final long sequence) {
+            return HttpRequest.newBuilder(target.uri("/api/objects", "bucketName", target.bucketName(), "objectKey", target.objectKey(sequence)))
+                    .header("Content-Type", "multipart/form-data; boundary=" + LoadTarget.BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(target.multipartBody()))
+                    .build();
+        }
+    },
+    DOWNLOAD {
+        @Override
+        HttpRequest request(final LoadTarget target, final long sequence) {
+            return HttpRequest.newBuilder(target.uri("/api/objects", "bucketName", target.bucketName(), "objectKey", target.objectKey(sequence)))
+                    .GET()
+                    .build();
+        }
+    },
+    INFO {
+        @Override
+        HttpRequest request(final LoadTarget target, final long sequence) {
+            return HttpRequest.newBuilder(target.uri("/api/objects/info", "bucketName", target.bucketName(), "objectKey", target.objectKey(sequence)))
+                    .GET()
+                    .build();
+        }
+    },
+    LIST {
+        @Override
+        HttpRequest request(final LoadTarget target, final long sequence) {
+            return HttpRequest.newBuilder(target.uri("/api/objects/list", "bucketName", target.bucketName(), "prefix", LoadTarget.KEY_PREFIX))
+                    .GET()
+                    .build();
+        }
+    },
+    TAG {
+        @Override
+        HttpRequest request(final LoadTarget target, final long sequence) {
+            String body = """
+                    {"bucketName":"%s","objectKey":"%s","tags":[{"key":"load-test","value":"%d"}]}"""
+                    .formatted(target.bucketName(), target.objectKey(sequence), sequence);
+            return HttpRequest.newBuilder(target.uri("/api/objects/tags"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    },
+    BUCKET_INFO {
+        @Override
+        HttpRequest request(final LoadTarget target, final long sequence) {
+            return HttpRequest.newBuilder(target.uri("/api/buckets/info", "bucketName", target.bucketName()))
+                    .GET()
+                    .build();
+        }
+    };
+
+    abstract HttpRequest request(LoadTarget target, long sequence);
+
+    /**
+     * The application and the data set a load test runs against.
+     *
+     * @param objectCount number of seeded objects, all of {@code objectSize} bytes
+     */
+    record LoadTarget(URI baseUri, String bucketName, int objectCount, byte[] multipartBody) {
+
+        static final String KEY_PREFIX = "load-test/";
+        static final String BOUNDARY = "load-test-boundary";
+
+        static LoadTarget of(final URI baseUri, final String bucketName, final int objectCount, final int objectSize) {
+            byte[] head = ("--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"object.bin\"\r\n"
+                    + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+            byte[] body = new byte[head.length + objectSize + tail.length];
+            System.arraycopy(head, 0, body, 0, head.length);
+            System.arraycopy(tail, 0, body, head.length + objectSize, tail.length);
+            return new LoadTarget(baseUri, bucketName, objectCount, body);
+        }
+
+        String objectKey(final long sequence) {
+            return KEY_PREFIX + "object-%05d".formatted(sequence % this.objectCount);
+        }
+
+        URI uri(final String path, final String... parameters) {
+            StringBuilder uri = new StringBuilder(path);
+            for (int i = 0; i < parameters.length; i += 2) {
+                uri.append(i == 0 ? '?' : '&')
+                        .append(parameters[i])
+                        .append('=')
+                        .append(URLEncoder.encode(parameters[i + 1], StandardCharsets.UTF_8));
+            }
+            return this.baseUri.resolve(uri.toString());
+        }
+    }
+}
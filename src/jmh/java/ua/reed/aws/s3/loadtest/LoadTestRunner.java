@@ -0,0 +1,74 @@
+package ua.reed.aws.s3.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.unit.DataSize;
+import ua.reed.aws.s3.AwsS3TaskApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the application with the {@code perf} profile, so S3 is served from memory, and drives its REST endpoints
+ * with every scenario at every concurrency level. Prints requests per second, p50/p99 latency, GC and heap figures
+ * per run and writes them to {@code target/load-test-result.csv}.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec@load-test [-Dload.scenarios=DOWNLOAD,INFO] [-Dload.threads=1,16,64] [-Dload.latency=20ms]}
+ * <p>
+ * Any other setting of the application can be passed as an argument, e.g. {@code --aws.s3.perf.error-rate=0.01}.
+ */
+public class LoadTestRunner {
+
+    private static final String BUCKET_NAME = "perf-bucket";
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        List<LoadScenario> scenarios = Arrays.stream(System.getProperty("load.scenarios", "UPLOAD,DOWNLOAD,INFO,LIST,TAG,BUCKET_INFO").split(","))
+                .map(String::trim)
+                .map(LoadScenario::valueOf)
+                .toList();
+        int[] threadCounts = Arrays.stream(System.getProperty("load.threads", "1,16,64").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("load.warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "30s"));
+        int objectSize = (int) DataSize.parse(System.getProperty("load.object-size", "64KB")).toBytes();
+        int objectCount = Integer.parseInt(System.getProperty("load.objects", "100"));
+
+        String[] applicationArgs = new String[args.length + 3];
+        applicationArgs[0] = "--spring.profiles.active=perf";
+        applicationArgs[1] = "--server.port=0";
+        applicationArgs[2] = "--aws.s3.perf.buckets=" + BUCKET_NAME;
+        System.arraycopy(args, 0, applicationArgs, 3, args.length);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AwsS3TaskApplication.class).run(applicationArgs)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadScenario.LoadTarget target = LoadScenario.LoadTarget.of(URI.create("http://localhost:" + port), BUCKET_NAME, objectCount, objectSize);
+            List<LoadResult> results = new ArrayList<>();
+            try (LoadGenerator generator = new LoadGenerator(target)) {
+                generator.seed();
+                System.out.println(LoadResult.HEADER);
+                for (LoadScenario scenario : scenarios) {
+                    for (int threads : threadCounts) {
+                        generator.run(scenario, threads, warmup);
+                        LoadResult result = generator.run(scenario, threads, duration);
+                        System.out.println(result.toRow());
+                        results.add(result);
+                    }
+                }
+            }
+            Path report = Path.of("target", "load-test-result.csv");
+            Files.createDirectories(report.getParent());
+            List<String> lines = new ArrayList<>();
+            lines.add(LoadResult.CSV_HEADER);
+            results.forEach(result -> lines.add(result.toCsv()));
+            Files.write(report, lines);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package ua.reed.aws.s3;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class AwsS3TaskApplication {
     public static void main(String[] args) {
         SpringApplication.run(AwsS3TaskApplication.class, args);
@@ -0,0 +1,39 @@
+package ua.reed.aws.s3.archive;
+
+import ua.reed.aws.s3.enums.ArchiveFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * Writes an archive entry by entry to a stream, without seeking back: an archive can be sent to the client while
+ * it is being built.
+ */
+public interface ArchiveOutput {
+
+    /**
+     * @param compressionLevel deflate level of the ZIP entries, 0 to 9, ignored for TAR
+     */
+    static ArchiveOutput open(final ArchiveFormat format, final OutputStream outputStream, final int compressionLevel) {
+        return switch (format) {
+            case ZIP -> new ZipArchiveOutput(outputStream, compressionLevel);
+            case TAR -> new TarArchiveOutput(outputStream);
+        };
+    }
+
+    /**
+     * Starts an entry. The size must be exact, a TAR header carries it ahead of the content.
+     * A name ending with {@code /} is a directory entry without content.
+     */
+    void putEntry(String name, long size, Instant lastModified) throws IOException;
+
+    void write(byte[] buffer, int offset, int length) throws IOException;
+
+    void closeEntry() throws IOException;
+
+    /**
+     * Writes the end of the archive and flushes it. The stream is left open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,140 @@
+package ua.reed.aws.s3.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * POSIX (ustar) TAR. Names longer than the 100 bytes of the header and sizes of 8GB and more are written
+ * to a PAX extended header in front of the entry.
+ */
+class TarArchiveOutput implements ArchiveOutput {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final long MAX_OCTAL_SIZE = 077777777777L;
+    private static final byte REGULAR_FILE = '0';
+    private static final byte DIRECTORY = '5';
+    private static final byte PAX_HEADER = 'x';
+
+    private final OutputStream outputStream;
+    private long remaining;
+    private long written;
+
+    TarArchiveOutput(final OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void putEntry(final String name, final long size, final Instant lastModified) throws IOException {
+        boolean directory = name.endsWith("/");
+        long entrySize = directory ? 0 : size;
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        boolean longName = nameBytes.length > NAME_LENGTH || nameBytes.length != name.length();
+        boolean longSize = entrySize > MAX_OCTAL_SIZE;
+        String headerName = longName ? asciiPrefix(name) : name;
+        if (longName || longSize) {
+            StringBuilder records = new StringBuilder();
+            if (longName) {
+                records.append(paxRecord("path", name));
+            }
+            if (longSize) {
+                records.append(paxRecord("size", Long.toString(entrySize)));
+            }
+            byte[] content = records.toString().getBytes(StandardCharsets.UTF_8);
+            writeHeader(asciiPrefix("PaxHeaders/" + headerName), content.length, lastModified, PAX_HEADER);
+            this.outputStream.write(content);
+            pad(content.length);
+        }
+        writeHeader(headerName, longSize ? 0 : entrySize, lastModified, directory ? DIRECTORY : REGULAR_FILE);
+        this.remaining = entrySize;
+        this.written = 0;
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (length > this.remaining) {
+            throw new IOException("Entry content is longer than its size in the header");
+        }
+        this.outputStream.write(buffer, offset, length);
+        this.remaining -= length;
+        this.written += length;
+    }
+
+    @Override
+    public void closeEntry() throws IOException {
+        if (this.remaining != 0) {
+            throw new IOException("Entry content is %d bytes shorter than its size in the header".formatted(this.remaining));
+        }
+        pad(this.written);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.outputStream.write(new byte[2 * BLOCK_SIZE]);
+        this.outputStream.flush();
+    }
+
+    private void writeHeader(final String name, final long size, final Instant lastModified, final byte type) throws IOException {
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, NAME_LENGTH));
+        octal(header, 100, 8, type == DIRECTORY ? 0755 : 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, Math.max(0, lastModified.getEpochSecond()));
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        header[156] = type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        octal(header, 148, 7, checksum);
+        this.outputStream.write(header);
+    }
+
+    private void pad(final long length) throws IOException {
+        int padding = (int) ((BLOCK_SIZE - length % BLOCK_SIZE) % BLOCK_SIZE);
+        if (padding > 0) {
+            this.outputStream.write(new byte[padding]);
+        }
+    }
+
+    /**
+     * Zero padded octal digits followed by a NUL.
+     */
+    private static void octal(final byte[] header, final int offset, final int length, final long value) {
+        String digits = Long.toOctalString(value);
+        String padded = "0".repeat(length - 1 - digits.length()) + digits;
+        System.arraycopy(padded.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+        header[offset + length - 1] = 0;
+    }
+
+    /**
+     * A record is {@code "<length> <key>=<value>\n"}, the length counting its own digits too.
+     */
+    private static String paxRecord(final String key, final String value) {
+        int length = key.getBytes(StandardCharsets.UTF_8).length + value.getBytes(StandardCharsets.UTF_8).length + 3;
+        int total = length + Integer.toString(length).length();
+        if (Integer.toString(total).length() > Integer.toString(length).length()) {
+            total++;
+        }
+        return total + " " + key + "=" + value + "\n";
+    }
+
+    /**
+     * Fallback name for readers without PAX support.
+     */
+    private static String asciiPrefix(final String name) {
+        StringBuilder ascii = new StringBuilder();
+        for (int i = 0; i < name.length() && ascii.length() < NAME_LENGTH; i++) {
+            char c = name.charAt(i);
+            ascii.append(c < 0x80 ? c : '_');
+        }
+        return ascii.toString();
+    }
+}
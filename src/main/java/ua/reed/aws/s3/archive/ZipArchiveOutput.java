@@ -0,0 +1,48 @@
+package ua.reed.aws.s3.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deflated entries, so sizes and CRCs follow the content in data descriptors and nothing has to be buffered.
+ * ZIP64 records are added once the archive outgrows the classic format.
+ */
+class ZipArchiveOutput implements ArchiveOutput {
+
+    private final ZipOutputStream zipOutputStream;
+
+    ZipArchiveOutput(final OutputStream outputStream, final int compressionLevel) {
+        this.zipOutputStream = new ZipOutputStream(outputStream);
+        this.zipOutputStream.setLevel(compressionLevel);
+    }
+
+    @Override
+    public void putEntry(final String name, final long size, final Instant lastModified) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setLastModifiedTime(FileTime.from(lastModified));
+        this.zipOutputStream.putNextEntry(entry);
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+        this.zipOutputStream.write(buffer, offset, length);
+    }
+
+    @Override
+    public void closeEntry() throws IOException {
+        this.zipOutputStream.closeEntry();
+    }
+
+    /**
+     * {@link ZipOutputStream#finish()} writes the central directory without closing the underlying stream.
+     */
+    @Override
+    public void finish() throws IOException {
+        this.zipOutputStream.finish();
+        this.zipOutputStream.flush();
+    }
+}
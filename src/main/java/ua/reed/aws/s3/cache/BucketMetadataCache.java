@@ -0,0 +1,66 @@
+package ua.reed.aws.s3.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.dto.BucketInfoDto;
+import ua.reed.aws.s3.dto.GetBucketResponseDto;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the bucket listing of the account as a map by bucket name, so a lookup costs one listing per
+ * time-to-live instead of one per call, and the HEAD results of single buckets.
+ * Hit and miss counts are exported as {@code cache.*} metrics.
+ */
+@Component
+public class BucketMetadataCache {
+
+    private static final String ACCOUNT_BUCKETS = "account";
+
+    private final Cache<String, Map<String, GetBucketResponseDto>> bucketListing;
+    private final Cache<String, BucketInfoDto> bucketInfo;
+
+    public BucketMetadataCache(final S3CacheProperties cacheProperties, final MeterRegistry meterRegistry) {
+        S3CacheProperties.Spec spec = cacheProperties.getBucket();
+        this.bucketListing = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(spec.getTimeToLive())
+                        .maximumSize(1)
+                        .recordStats()
+                        .<String, Map<String, GetBucketResponseDto>>build(),
+                "s3.bucket.listing"
+        );
+        this.bucketInfo = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .expireAfterWrite(spec.getTimeToLive())
+                        .maximumSize(spec.getMaximumSize())
+                        .recordStats()
+                        .<String, BucketInfoDto>build(),
+                "s3.bucket.info"
+        );
+    }
+
+    public Map<String, GetBucketResponseDto> getBuckets(final Supplier<Map<String, GetBucketResponseDto>> loader) {
+        return this.bucketListing.get(ACCOUNT_BUCKETS, key -> loader.get());
+    }
+
+    public BucketInfoDto getBucketInfo(final String bucketName, final Function<String, BucketInfoDto> loader) {
+        return this.bucketInfo.get(bucketName, loader);
+    }
+
+    /**
+     * Drops everything known about the bucket, including the account listing it belongs to.
+     */
+    public void invalidate(final String bucketName) {
+        this.bucketListing.invalidate(ACCOUNT_BUCKETS);
+        this.bucketInfo.invalidate(bucketName);
+    }
+}
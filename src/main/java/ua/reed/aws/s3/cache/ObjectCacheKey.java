@@ -0,0 +1,8 @@
+package ua.reed.aws.s3.cache;
+
+public record ObjectCacheKey(String bucketName, String objectKey) {
+
+    public static ObjectCacheKey of(String bucketName, String objectKey) {
+        return new ObjectCacheKey(bucketName, objectKey);
+    }
+}
@@ -0,0 +1,22 @@
+package ua.reed.aws.s3.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * Body of an object together with the metadata needed to answer a download, served either from S3 or from a cache tier.
+ */
+public interface ObjectContent {
+
+    long contentLength();
+
+    String eTag();
+
+    Instant lastModified();
+
+    String contentType();
+
+    void writeTo(final OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,388 @@
+package ua.reed.aws.s3.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.exception.ObjectNotModifiedException;
+import ua.reed.aws.s3.service.ObjectService;
+import ua.reed.aws.s3.service.model.GetObjectOptions;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of object content in front of {@link ObjectService#getObject(GetObjectOptions)}.
+ * Small objects are kept on heap, bigger ones in files on the local disk, both tiers are evicted by size (LRU).
+ * A cached copy is never served blindly: it is revalidated with a conditional GET ({@code If-None-Match}), which
+ * costs a round trip without a body while the object is unchanged.
+ */
+@Slf4j
+@Component
+public class ObjectContentCache {
+
+    private static final String CACHE_FILE_SUFFIX = ".cache";
+
+    private final ObjectService objectService;
+    private final S3CacheProperties.Content properties;
+    private final int bufferSize;
+    private final Cache<ObjectCacheKey, MemoryEntry> memoryTier;
+    private final Cache<ObjectCacheKey, DiskEntry> diskTier;
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public ObjectContentCache(final ObjectService objectService,
+                              final S3CacheProperties cacheProperties,
+                              final S3TransferProperties transferProperties,
+                              final MeterRegistry meterRegistry) throws IOException {
+        this.objectService = objectService;
+        this.properties = cacheProperties.getContent();
+        this.bufferSize = (int) transferProperties.getDownloadBufferSize().toBytes();
+        this.memoryTier = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumWeight(this.properties.getMemoryMaximumSize().toBytes())
+                        .weigher((ObjectCacheKey key, MemoryEntry entry) -> entry.content().length)
+                        .recordStats()
+                        .<ObjectCacheKey, MemoryEntry>build(),
+                "s3.object.content.memory"
+        );
+        this.diskTier = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumWeight(this.properties.getDiskMaximumSize().toBytes())
+                        .weigher((ObjectCacheKey key, DiskEntry entry) -> (int) Math.min(entry.contentLength(), Integer.MAX_VALUE))
+                        .removalListener((ObjectCacheKey key, DiskEntry entry, RemovalCause cause) -> {
+                            if (entry != null) {
+                                deleteQuietly(entry.file());
+                            }
+                        })
+                        .recordStats()
+                        .<ObjectCacheKey, DiskEntry>build(),
+                "s3.object.content.disk"
+        );
+        this.memoryHits = requestCounter(meterRegistry, "memory_hit");
+        this.diskHits = requestCounter(meterRegistry, "disk_hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.bytesSaved = Counter.builder("s3.object.content.bytes.saved")
+                .description("Bytes served from the content cache instead of being downloaded from S3")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (this.properties.isEnabled()) {
+            prepareDiskDirectory();
+        }
+    }
+
+    /**
+     * Returns the whole object, {@link GetObjectOptions#getRange()} is not supported here.
+     * The client validators of the options are honoured: {@link ObjectNotModifiedException} is thrown when the
+     * caller's copy is up to date, whether it was checked by S3 or against the cached copy.
+     */
+    public ObjectContent getObject(final GetObjectOptions options) {
+        if (!this.properties.isEnabled()) {
+            return new StreamContent(this.objectService.getObject(options), this.bufferSize);
+        }
+        String bucketName = options.getBucketName();
+        String objectKey = options.getObjectKey();
+        ObjectCacheKey key = ObjectCacheKey.of(bucketName, objectKey);
+        CachedContent cached = lookup(key);
+        if (cached == null) {
+            // nothing to revalidate, the caller's validators spare the body if its own copy is still valid
+            ResponseInputStream<GetObjectResponse> objectStream = this.objectService.getObject(options);
+            this.misses.increment();
+            return populate(key, objectStream);
+        }
+        ResponseInputStream<GetObjectResponse> objectStream;
+        try {
+            objectStream = this.objectService.getObject(
+                    GetObjectOptions.builder()
+                            .bucketName(bucketName)
+                            .objectKey(objectKey)
+                            .ifNoneMatch(cached.eTag())
+                            .build()
+            );
+        } catch (ObjectNotModifiedException ex) {
+            (cached instanceof MemoryEntry ? this.memoryHits : this.diskHits).increment();
+            if (S3Utils.isNotModified(cached.eTag(), cached.lastModified(), options.getIfNoneMatch(), options.getIfModifiedSince())) {
+                closeQuietly(cached);
+                throw new ObjectNotModifiedException(bucketName, objectKey, cached.eTag());
+            }
+            this.bytesSaved.increment(cached.contentLength());
+            return cached;
+        } catch (RuntimeException ex) {
+            // most likely the object is gone, the copy must not outlive it
+            closeQuietly(cached);
+            invalidate(key);
+            throw ex;
+        }
+        this.misses.increment();
+        closeQuietly(cached);
+        invalidate(key);
+        GetObjectResponse response = objectStream.response();
+        if (S3Utils.isNotModified(response.eTag(), response.lastModified(), options.getIfNoneMatch(), options.getIfModifiedSince())) {
+            // the caller already has the new version, the body isn't needed
+            objectStream.abort();
+            closeQuietly(objectStream);
+            throw new ObjectNotModifiedException(bucketName, objectKey, response.eTag());
+        }
+        return populate(key, objectStream);
+    }
+
+    public void invalidate(final ObjectCacheKey key) {
+        this.memoryTier.invalidate(key);
+        this.diskTier.invalidate(key);
+    }
+
+    /**
+     * A disk entry is opened right away: once the file is open, it stays readable even if the entry is evicted meanwhile.
+     */
+    private CachedContent lookup(final ObjectCacheKey key) {
+        MemoryEntry memoryEntry = this.memoryTier.getIfPresent(key);
+        if (memoryEntry != null) {
+            return memoryEntry;
+        }
+        DiskEntry diskEntry = this.diskTier.getIfPresent(key);
+        if (diskEntry == null) {
+            return null;
+        }
+        try {
+            return new OpenDiskEntry(diskEntry, FileChannel.open(diskEntry.file(), StandardOpenOption.READ), this.bufferSize);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            log.warn("Cannot open cache file {}", diskEntry.file(), ex);
+            return null;
+        }
+    }
+
+    private ObjectContent populate(final ObjectCacheKey key, final ResponseInputStream<GetObjectResponse> objectStream) {
+        GetObjectResponse response = objectStream.response();
+        long contentLength = response.contentLength();
+        if (contentLength <= this.properties.getMemoryMaximumObjectSize().toBytes()) {
+            try (objectStream) {
+                MemoryEntry entry = new MemoryEntry(objectStream.readNBytes((int) contentLength), response.eTag(), response.lastModified(), response.contentType());
+                this.memoryTier.put(key, entry);
+                return entry;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read object '%s' from bucket '%s'".formatted(key.objectKey(), key.bucketName()), ex);
+            }
+        }
+        if (contentLength <= this.properties.getDiskMaximumObjectSize().toBytes()) {
+            return new DiskWritingContent(key, objectStream);
+        }
+        return new StreamContent(objectStream, this.bufferSize);
+    }
+
+    private void prepareDiskDirectory() throws IOException {
+        Path directory = this.properties.getDiskDirectory();
+        Files.createDirectories(directory);
+        // the index of the disk tier lives on heap, files left by a previous run can't be served anyway
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(CACHE_FILE_SUFFIX))
+                    .forEach(ObjectContentCache::deleteQuietly);
+        }
+    }
+
+    private static Counter requestCounter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("s3.object.content.requests")
+                .description("Downloads served by the content cache by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static void closeQuietly(final CachedContent content) {
+        if (content instanceof OpenDiskEntry openDiskEntry) {
+            try {
+                openDiskEntry.channel().close();
+            } catch (IOException ex) {
+                log.warn("Cannot close cache file {}", openDiskEntry.entry().file(), ex);
+            }
+        }
+    }
+
+    private static void closeQuietly(final ResponseInputStream<GetObjectResponse> objectStream) {
+        try {
+            objectStream.close();
+        } catch (IOException ex) {
+            log.debug("Cannot close an aborted object stream", ex);
+        }
+    }
+
+    private static void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Cannot delete cache file {}", file, ex);
+        }
+    }
+
+    private sealed interface CachedContent extends ObjectContent permits MemoryEntry, OpenDiskEntry {
+    }
+
+    private record MemoryEntry(byte[] content, String eTag, Instant lastModified, String contentType) implements CachedContent {
+
+        @Override
+        public long contentLength() {
+            return this.content.length;
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            outputStream.write(this.content);
+            outputStream.flush();
+        }
+    }
+
+    private record DiskEntry(Path file, long contentLength, String eTag, Instant lastModified, String contentType) {
+    }
+
+    /**
+     * The servlet output stream is not a channel, so the file is copied through a buffer rather than
+     * with {@link FileChannel#transferTo}, which would go through a heap buffer anyway.
+     */
+    private record OpenDiskEntry(DiskEntry entry, FileChannel channel, int bufferSize) implements CachedContent {
+
+        @Override
+        public long contentLength() {
+            return this.entry.contentLength();
+        }
+
+        @Override
+        public String eTag() {
+            return this.entry.eTag();
+        }
+
+        @Override
+        public Instant lastModified() {
+            return this.entry.lastModified();
+        }
+
+        @Override
+        public String contentType() {
+            return this.entry.contentType();
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            try (this.channel) {
+                S3Utils.copy(Channels.newInputStream(this.channel), outputStream, this.bufferSize);
+            }
+        }
+    }
+
+    private record StreamContent(ResponseInputStream<GetObjectResponse> objectStream, int bufferSize) implements ObjectContent {
+
+        @Override
+        public long contentLength() {
+            return this.objectStream.response().contentLength();
+        }
+
+        @Override
+        public String eTag() {
+            return this.objectStream.response().eTag();
+        }
+
+        @Override
+        public Instant lastModified() {
+            return this.objectStream.response().lastModified();
+        }
+
+        @Override
+        public String contentType() {
+            return this.objectStream.response().contentType();
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            S3Utils.transfer(this.objectStream, outputStream, this.bufferSize);
+        }
+    }
+
+    /**
+     * Serves the object from S3 and writes it to a cache file on the way, the file becomes a disk tier entry
+     * only once the whole object went through.
+     */
+    private final class DiskWritingContent implements ObjectContent {
+
+        private final ObjectCacheKey key;
+        private final ResponseInputStream<GetObjectResponse> objectStream;
+
+        private DiskWritingContent(final ObjectCacheKey key, final ResponseInputStream<GetObjectResponse> objectStream) {
+            this.key = key;
+            this.objectStream = objectStream;
+        }
+
+        @Override
+        public long contentLength() {
+            return this.objectStream.response().contentLength();
+        }
+
+        @Override
+        public String eTag() {
+            return this.objectStream.response().eTag();
+        }
+
+        @Override
+        public Instant lastModified() {
+            return this.objectStream.response().lastModified();
+        }
+
+        @Override
+        public String contentType() {
+            return this.objectStream.response().contentType();
+        }
+
+        @Override
+        public void writeTo(final OutputStream outputStream) throws IOException {
+            Path file = Files.createTempFile(properties.getDiskDirectory(), "object-", CACHE_FILE_SUFFIX);
+            long written = 0;
+            try (this.objectStream; FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                try {
+                    byte[] buffer = new byte[bufferSize];
+                    int read;
+                    while ((read = this.objectStream.read(buffer)) != -1) {
+                        outputStream.write(buffer, 0, read);
+                        ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                        while (chunk.hasRemaining()) {
+                            fileChannel.write(chunk);
+                        }
+                        written += read;
+                    }
+                    outputStream.flush();
+                } catch (IOException | RuntimeException ex) {
+                    this.objectStream.abort();
+                    throw ex;
+                }
+            } catch (IOException | RuntimeException ex) {
+                deleteQuietly(file);
+                throw ex;
+            }
+            if (written == contentLength()) {
+                diskTier.put(this.key, new DiskEntry(file, written, eTag(), lastModified(), contentType()));
+            } else {
+                deleteQuietly(file);
+            }
+        }
+    }
+}
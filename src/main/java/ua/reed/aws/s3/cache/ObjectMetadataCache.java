@@ -0,0 +1,77 @@
+package ua.reed.aws.s3.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.dto.ObjectInfoDto;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * HEAD results of objects by bucket and key. A missing object is cached as an empty value with its own,
+ * usually shorter, time-to-live, so polling a key that doesn't exist doesn't reach S3 either.
+ */
+@Component
+public class ObjectMetadataCache {
+
+    private final Cache<ObjectCacheKey, Optional<ObjectInfoDto>> objectInfo;
+
+    public ObjectMetadataCache(final S3CacheProperties cacheProperties, final MeterRegistry meterRegistry) {
+        S3CacheProperties.ObjectInfoSpec spec = cacheProperties.getObjectInfo();
+        long timeToLive = spec.getTimeToLive().toNanos();
+        long negativeTimeToLive = spec.getNegativeTimeToLive().toNanos();
+        this.objectInfo = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(spec.getMaximumSize())
+                        .expireAfter(new Expiry<ObjectCacheKey, Optional<ObjectInfoDto>>() {
+                            @Override
+                            public long expireAfterCreate(final ObjectCacheKey key, final Optional<ObjectInfoDto> value, final long currentTime) {
+                                return value.isPresent() ? timeToLive : negativeTimeToLive;
+                            }
+
+                            @Override
+                            public long expireAfterUpdate(final ObjectCacheKey key, final Optional<ObjectInfoDto> value, final long currentTime, final long currentDuration) {
+                                return expireAfterCreate(key, value, currentTime);
+                            }
+
+                            @Override
+                            public long expireAfterRead(final ObjectCacheKey key, final Optional<ObjectInfoDto> value, final long currentTime, final long currentDuration) {
+                                return currentDuration;
+                            }
+                        })
+                        .recordStats()
+                        .<ObjectCacheKey, Optional<ObjectInfoDto>>build(),
+                "s3.object.info"
+        );
+    }
+
+    /**
+     * @param loader returns an empty value when the object doesn't exist
+     */
+    public Optional<ObjectInfoDto> get(final String bucketName, final String objectKey, final Function<ObjectCacheKey, Optional<ObjectInfoDto>> loader) {
+        return this.objectInfo.get(ObjectCacheKey.of(bucketName, objectKey), loader);
+    }
+
+    public void invalidate(final String bucketName, final String objectKey) {
+        this.objectInfo.invalidate(ObjectCacheKey.of(bucketName, objectKey));
+    }
+
+    /**
+     * Drops the entry when S3 reported a different ETag for the object than the cached one,
+     * i.e. the object was overwritten bypassing this service.
+     */
+    public void invalidateIfChanged(final String bucketName, final String objectKey, final String eTag) {
+        ObjectCacheKey key = ObjectCacheKey.of(bucketName, objectKey);
+        Optional<ObjectInfoDto> cached = this.objectInfo.getIfPresent(key);
+        if (cached != null && !cached.map(ObjectInfoDto::eTag).filter(cachedETag -> Objects.equals(cachedETag, eTag)).isPresent()) {
+            this.objectInfo.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ua.reed.aws.s3.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.presigner.PresignedRequest;
+import ua.reed.aws.s3.config.S3CacheProperties;
+import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Pre-signed urls by operation, bucket and key. An entry expires a safety margin before its url does,
+ * so a client always gets a url it still has time to use.
+ */
+@Component
+public class PreSignedUrlCache {
+
+    private final Cache<Key, PresignedRequest> preSignedUrls;
+
+    public PreSignedUrlCache(final S3CacheProperties cacheProperties, final MeterRegistry meterRegistry) {
+        S3CacheProperties.PreSignedUrlSpec spec = cacheProperties.getPreSignedUrl();
+        long timeToLive = spec.getTimeToLive().toNanos();
+        Duration safetyMargin = spec.getSafetyMargin();
+        this.preSignedUrls = CaffeineCacheMetrics.monitor(
+                meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(spec.getMaximumSize())
+                        .expireAfter(new Expiry<Key, PresignedRequest>() {
+                            @Override
+                            public long expireAfterCreate(final Key key, final PresignedRequest value, final long currentTime) {
+                                long usable = Duration.between(Instant.now(), value.expiration().minus(safetyMargin)).toNanos();
+                                return Math.max(0, Math.min(usable, timeToLive));
+                            }
+
+                            @Override
+                            public long expireAfterUpdate(final Key key, final PresignedRequest value, final long currentTime, final long currentDuration) {
+                                return expireAfterCreate(key, value, currentTime);
+                            }
+
+                            @Override
+                            public long expireAfterRead(final Key key, final PresignedRequest value, final long currentTime, final long currentDuration) {
+                                return currentDuration;
+                            }
+                        })
+                        .recordStats()
+                        .<Key, PresignedRequest>build(),
+                "s3.pre.signed.url"
+        );
+    }
+
+    public PresignedRequest get(final PreSignedUrlOperationType operationType,
+                                final String bucketName,
+                                final String objectKey,
+                                final Function<Key, PresignedRequest> loader) {
+        return this.preSignedUrls.get(new Key(operationType, bucketName, objectKey), loader);
+    }
+
+    public record Key(PreSignedUrlOperationType operationType, String bucketName, String objectKey) {
+    }
+}
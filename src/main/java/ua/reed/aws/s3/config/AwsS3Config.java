@@ -1,24 +1,42 @@
 package ua.reed.aws.s3.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import software.amazon.awssdk.auth.credentials.InstanceProfileCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.S3CrtAsyncClientBuilder;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import ua.reed.aws.s3.metrics.S3ClientMetricPublisher;
+import ua.reed.aws.s3.metrics.S3ClientMetricsInterceptor;
+import ua.reed.aws.s3.ratelimit.S3RequestRateLimiter;
+import ua.reed.aws.s3.ratelimit.S3ThrottlingInterceptor;
+
+import java.time.Duration;
 
 @Configuration
 @RequiredArgsConstructor
 public class AwsS3Config {
 
     private static final String PROFILE_KEY = "aws.profile";
+    private static final String S3_CLIENT = "s3Client";
 
     private final Environment environment;
+    private final S3ClientProperties clientProperties;
+    private final S3RequestRateLimiter requestRateLimiter;
+    private final MeterRegistry meterRegistry;
 
     @Profile("local")
     @Bean
@@ -36,6 +54,24 @@ public class AwsS3Config {
                 .build();
     }
 
+    @Profile("local")
+    @Bean
+    @ConditionalOnProperty(prefix = "aws.s3.async", name = "enabled", havingValue = "true")
+    public S3AsyncClient localS3AsyncClient(final S3AsyncProperties asyncProperties) {
+        return getS3AsyncClientBuilder(asyncProperties)
+                .credentialsProvider(ProfileCredentialsProvider.create(environment.getProperty(PROFILE_KEY)))
+                .build();
+    }
+
+    @Profile("ec2")
+    @Bean
+    @ConditionalOnProperty(prefix = "aws.s3.async", name = "enabled", havingValue = "true")
+    public S3AsyncClient ec2S3AsyncClient(final S3AsyncProperties asyncProperties) {
+        return getS3AsyncClientBuilder(asyncProperties)
+                .credentialsProvider(InstanceProfileCredentialsProvider.create())
+                .build();
+    }
+
     @Profile("local")
     @Bean
     public S3Presigner localS3Presigner() {
@@ -54,11 +90,63 @@ public class AwsS3Config {
 
     private S3Presigner.Builder getS3PresignedBuilder() {
         return S3Presigner.builder()
-                .region(Region.EU_NORTH_1);
+                .region(Region.of(clientProperties.getRegion()))
+                .endpointOverride(clientProperties.getEndpointOverride())
+                .serviceConfiguration(getS3Configuration());
     }
 
     private S3ClientBuilder getS3ClientBuilder() {
         return S3Client.builder()
-                .region(Region.EU_NORTH_1);
+                .region(Region.of(clientProperties.getRegion()))
+                .endpointOverride(clientProperties.getEndpointOverride())
+                .serviceConfiguration(getS3Configuration())
+                .httpClientBuilder(clientProperties.getHttpClient().toApacheHttpClientBuilder())
+                .overrideConfiguration(getClientOverrideConfiguration());
+    }
+
+    private S3CrtAsyncClientBuilder getS3AsyncClientBuilder(final S3AsyncProperties asyncProperties) {
+        return S3AsyncClient.crtBuilder()
+                .region(Region.of(clientProperties.getRegion()))
+                .endpointOverride(clientProperties.getEndpointOverride())
+                .forcePathStyle(clientProperties.isPathStyleAccessEnabled())
+                .checksumValidationEnabled(clientProperties.isChecksumValidationEnabled())
+                .targetThroughputInGbps(asyncProperties.getTargetThroughputInGbps())
+                .maxConcurrency(asyncProperties.getMaxConcurrency())
+                .minimumPartSizeInBytes(asyncProperties.getMinimumPartSize().toBytes());
+    }
+
+    private S3Configuration getS3Configuration() {
+        return S3Configuration.builder()
+                .pathStyleAccessEnabled(clientProperties.isPathStyleAccessEnabled())
+                .checksumValidationEnabled(clientProperties.isChecksumValidationEnabled())
+                .build();
+    }
+
+    private ClientOverrideConfiguration getClientOverrideConfiguration() {
+        S3ClientProperties.Retry retry = clientProperties.getRetry();
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder()
+                .addExecutionInterceptor(new S3ClientMetricsInterceptor(meterRegistry))
+                .addMetricPublisher(new S3ClientMetricPublisher(S3_CLIENT, meterRegistry));
+        if (clientProperties.getThrottling().isEnabled()) {
+            builder.addExecutionInterceptor(new S3ThrottlingInterceptor(requestRateLimiter));
+        }
+        return builder
+                .apiCallTimeout(clientProperties.getApiCallTimeout())
+                .apiCallAttemptTimeout(clientProperties.getApiCallAttemptTimeout())
+                .retryPolicy(
+                        RetryPolicy.builder(retry.getMode())
+                                .numRetries(retry.getMaxRetries())
+                                .backoffStrategy(getBackoffStrategy(retry.getBaseDelay(), retry.getMaxBackoffTime()))
+                                .throttlingBackoffStrategy(getBackoffStrategy(retry.getThrottlingBaseDelay(), retry.getMaxBackoffTime()))
+                                .build()
+                )
+                .build();
+    }
+
+    private FullJitterBackoffStrategy getBackoffStrategy(final Duration baseDelay, final Duration maxBackoffTime) {
+        return FullJitterBackoffStrategy.builder()
+                .baseDelay(baseDelay)
+                .maxBackoffTime(maxBackoffTime)
+                .build();
     }
 }
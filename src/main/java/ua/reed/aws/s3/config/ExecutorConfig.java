@@ -0,0 +1,83 @@
+package ua.reed.aws.s3.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors used for async MVC requests and for fanning out S3 calls. With {@code spring.threads.virtual.enabled=true}
+ * (Java 21+) Tomcat, async requests and the S3 fan-out all run on virtual threads.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    public static final String S3_TRANSFER_EXECUTOR = "s3TransferExecutor";
+    public static final String S3_JOB_EXECUTOR = "s3JobExecutor";
+
+    /**
+     * Spring Boot backs off its own task executor as soon as any other executor bean is present,
+     * so it's declared explicitly to keep serving async MVC requests (e.g. streamed downloads).
+     */
+    @Bean(name = {
+            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(final ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = {
+            TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(final SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = S3_TRANSFER_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor s3TransferExecutor(final S3TransferProperties transferProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(transferProperties.getExecutorThreads());
+        executor.setMaxPoolSize(transferProperties.getExecutorThreads());
+        executor.setThreadNamePrefix("s3-transfer-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * A virtual thread per task, without a concurrency limit: a limit would block {@code execute()}, and tasks
+     * submitting follow-up tasks while they hold their slot would deadlock once every slot is taken. The S3 calls
+     * are bounded by the semaphores of every operation and by the connection acquisition timeout of the pool.
+     */
+    @Bean(name = S3_TRANSFER_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor s3TransferExecutorVirtualThreads() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("s3-transfer-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    /**
+     * Background jobs are few and long-lived and mostly wait for their S3 calls on the transfer executor,
+     * so they run on platform threads in both threading modes. Jobs beyond the pool size are queued.
+     */
+    @Bean(name = S3_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor s3JobExecutor(final S3JobProperties jobProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobProperties.getMaxRunningJobs());
+        executor.setMaxPoolSize(jobProperties.getMaxRunningJobs());
+        executor.setThreadNamePrefix("s3-job-");
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package ua.reed.aws.s3.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import ua.reed.aws.s3.metrics.HttpConnectionPoolMetrics;
+
+@Configuration
+public class HttpClientConfig {
+
+    public static final String PRE_SIGNED_URL_HTTP_CLIENT = "preSignedUrlHttpClient";
+
+    @Bean(name = PRE_SIGNED_URL_HTTP_CLIENT)
+    public SdkHttpClient preSignedUrlHttpClient(final PreSignedUrlProperties preSignedUrlProperties) {
+        return preSignedUrlProperties.getHttpClient()
+                .toApacheHttpClientBuilder()
+                .build();
+    }
+
+    @Bean
+    public HttpConnectionPoolMetrics preSignedUrlHttpClientMetrics(final MeterRegistry meterRegistry) {
+        return new HttpConnectionPoolMetrics(PRE_SIGNED_URL_HTTP_CLIENT, meterRegistry);
+    }
+}
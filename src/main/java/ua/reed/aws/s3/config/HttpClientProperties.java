@@ -0,0 +1,43 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings of an Apache based {@link software.amazon.awssdk.http.SdkHttpClient}.
+ */
+@Getter
+@Setter
+public class HttpClientProperties {
+
+    private int maxConnections = 50;
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+    /**
+     * Idle connections are evicted from the pool after this time.
+     */
+    private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+    /**
+     * Connections older than this are not reused once they are back in the pool, a connection in use is never
+     * closed by it. Zero means no limit.
+     */
+    private Duration connectionTimeToLive = Duration.ZERO;
+    private boolean tcpKeepAlive = true;
+    private boolean useIdleConnectionReaper = true;
+
+    public ApacheHttpClient.Builder toApacheHttpClientBuilder() {
+        return ApacheHttpClient.builder()
+                .maxConnections(this.maxConnections)
+                .connectionTimeout(this.connectionTimeout)
+                .socketTimeout(this.socketTimeout)
+                .connectionAcquisitionTimeout(this.connectionAcquisitionTimeout)
+                .connectionMaxIdleTime(this.connectionMaxIdleTime)
+                .connectionTimeToLive(this.connectionTimeToLive)
+                .tcpKeepAlive(this.tcpKeepAlive)
+                .useIdleConnectionReaper(this.useIdleConnectionReaper);
+    }
+}
@@ -0,0 +1,52 @@
+package ua.reed.aws.s3.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import ua.reed.aws.s3.perf.FaultInjector;
+import ua.reed.aws.s3.perf.InMemoryS3Client;
+
+/**
+ * Serves S3 from memory with the latency and failure rates of {@link S3PerfProperties}, so the controllers
+ * can be load tested offline. The stand-in replaces the whole SDK client, so the SDK's retries, execution
+ * interceptors and metric publishers are not part of what is measured.
+ */
+@Profile("perf")
+@Configuration
+@RequiredArgsConstructor
+public class PerfS3Config {
+
+    private final S3ClientProperties clientProperties;
+    private final S3PerfProperties perfProperties;
+
+    @Bean
+    public S3Client perfS3Client() {
+        InMemoryS3Client s3Client = new InMemoryS3Client(
+                new FaultInjector(
+                        perfProperties.getLatency(),
+                        perfProperties.getLatencyJitter(),
+                        perfProperties.getErrorRate(),
+                        perfProperties.getThrottleRate()
+                )
+        );
+        perfProperties.getBuckets().forEach(s3Client::createBucket);
+        return s3Client;
+    }
+
+    /**
+     * Signs with static credentials: urls are generated as usual, but they point at S3 and can't be used.
+     */
+    @Bean
+    public S3Presigner perfS3Presigner() {
+        return S3Presigner.builder()
+                .region(Region.of(clientProperties.getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("perf", "perf")))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.pre-signed-url")
+public class PreSignedUrlProperties {
+
+    /**
+     * HTTP client used to call pre-signed urls, shared by all requests.
+     */
+    @NestedConfigurationProperty
+    private HttpClientProperties httpClient = new HttpClientProperties();
+
+    /**
+     * How long a url stays valid, by operation. Operations without a value use {@link #defaultSignatureDuration}.
+     */
+    private Map<PreSignedUrlOperationType, Duration> signatureDuration = new EnumMap<>(PreSignedUrlOperationType.class);
+    private Duration defaultSignatureDuration = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of keys in a single bulk request.
+     */
+    private int bulkMaximumKeys = 1_000;
+
+    public Duration getSignatureDuration(final PreSignedUrlOperationType operationType) {
+        return this.signatureDuration.getOrDefault(operationType, this.defaultSignatureDuration);
+    }
+}
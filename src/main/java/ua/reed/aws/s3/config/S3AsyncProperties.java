@@ -0,0 +1,36 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the non-blocking data path served by {@code /api/async/objects}. Region, endpoint and checksum
+ * settings are shared with the blocking client, see {@link S3ClientProperties}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.async")
+public class S3AsyncProperties {
+
+    /**
+     * Creates the CRT based S3AsyncClient and exposes the async object endpoints.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Throughput the CRT client aims for, it opens as many connections as needed to reach it.
+     */
+    private double targetThroughputInGbps = 10.0;
+
+    /**
+     * Upper limit of concurrent connections, derived from the target throughput when not set.
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * Part size of the multipart uploads and ranged downloads done by the CRT client.
+     */
+    private DataSize minimumPartSize = DataSize.ofMegabytes(8);
+}
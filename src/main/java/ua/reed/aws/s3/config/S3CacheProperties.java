@@ -0,0 +1,112 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * In-process caches of S3 metadata. A zero time-to-live effectively disables a cache.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.cache")
+public class S3CacheProperties {
+
+    /**
+     * Listing of the account buckets used by bucket lookups and the HEAD results of single buckets.
+     */
+    private Spec bucket = new Spec(Duration.ofMinutes(5), 1_000);
+
+    /**
+     * HEAD results of objects served by {@code /api/objects/info}.
+     */
+    private ObjectInfoSpec objectInfo = new ObjectInfoSpec(Duration.ofSeconds(30), 10_000, Duration.ofSeconds(5));
+
+    /**
+     * Content of downloaded objects, small ones on heap and bigger ones on the local disk.
+     */
+    private Content content = new Content();
+
+    /**
+     * Generated pre-signed urls, reused while they stay valid long enough to be useful to a client.
+     */
+    private PreSignedUrlSpec preSignedUrl = new PreSignedUrlSpec(Duration.ofMinutes(5), 10_000, Duration.ofMinutes(2));
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        private Duration timeToLive;
+        private long maximumSize;
+
+        public Spec() {
+        }
+
+        public Spec(final Duration timeToLive, final long maximumSize) {
+            this.timeToLive = timeToLive;
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ObjectInfoSpec extends Spec {
+
+        /**
+         * How long a missing object is remembered as missing, zero disables negative caching.
+         */
+        private Duration negativeTimeToLive;
+
+        public ObjectInfoSpec() {
+        }
+
+        public ObjectInfoSpec(final Duration timeToLive, final long maximumSize, final Duration negativeTimeToLive) {
+            super(timeToLive, maximumSize);
+            this.negativeTimeToLive = negativeTimeToLive;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class PreSignedUrlSpec extends Spec {
+
+        /**
+         * A url is no longer handed out once it expires within this margin. The time-to-live still caps the entry,
+         * as a url can't outlive the temporary credentials it was signed with.
+         */
+        private Duration safetyMargin;
+
+        public PreSignedUrlSpec() {
+        }
+
+        public PreSignedUrlSpec(final Duration timeToLive, final long maximumSize, final Duration safetyMargin) {
+            super(timeToLive, maximumSize);
+            this.safetyMargin = safetyMargin;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Content {
+
+        private boolean enabled = false;
+        /**
+         * Objects up to this size are kept on heap.
+         */
+        private DataSize memoryMaximumObjectSize = DataSize.ofMegabytes(1);
+        private DataSize memoryMaximumSize = DataSize.ofMegabytes(64);
+        /**
+         * Objects bigger than the memory limit and up to this size are kept on disk, bigger ones are not cached.
+         */
+        private DataSize diskMaximumObjectSize = DataSize.ofMegabytes(256);
+        private DataSize diskMaximumSize = DataSize.ofGigabytes(1);
+        /**
+         * Directory of the disk tier, its cache files are removed on startup.
+         */
+        private Path diskDirectory = Path.of(System.getProperty("java.io.tmpdir"), "aws-s3-task-cache");
+    }
+}
@@ -0,0 +1,101 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import software.amazon.awssdk.core.retry.RetryMode;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.client")
+public class S3ClientProperties {
+
+    private String region = "eu-north-1";
+
+    /**
+     * Alternative S3 endpoint, e.g. a VPC endpoint or an S3 compatible storage.
+     */
+    private URI endpointOverride;
+
+    private boolean pathStyleAccessEnabled = false;
+
+    /**
+     * Whether the client validates checksums of uploaded and downloaded content.
+     */
+    private boolean checksumValidationEnabled = true;
+
+    /**
+     * Total time allowed for an API call including retries, no limit when not set.
+     */
+    private Duration apiCallTimeout;
+
+    /**
+     * Time allowed for a single attempt of an API call, no limit when not set.
+     */
+    private Duration apiCallAttemptTimeout;
+
+    @NestedConfigurationProperty
+    private HttpClientProperties httpClient = new HttpClientProperties();
+
+    private Retry retry = new Retry();
+
+    private Throttling throttling = new Throttling();
+
+    @Getter
+    @Setter
+    public static class Retry {
+
+        private RetryMode mode = RetryMode.STANDARD;
+        private int maxRetries = 3;
+        private Duration baseDelay = Duration.ofMillis(100);
+        /**
+         * Base delay used when S3 throttles the requests (503 SlowDown).
+         */
+        private Duration throttlingBaseDelay = Duration.ofMillis(500);
+        private Duration maxBackoffTime = Duration.ofSeconds(20);
+    }
+
+    /**
+     * Client-side rate limit of the synchronous client by bucket and key prefix, adapted to the throttling
+     * responses (503 SlowDown) of S3, as S3 scales its request rate limits per prefix.
+     */
+    @Getter
+    @Setter
+    public static class Throttling {
+
+        private boolean enabled = true;
+        /**
+         * Requests per second of a prefix that wasn't throttled yet.
+         */
+        private double initialRate = 1_000;
+        private double minRate = 10;
+        private double maxRate = 5_500;
+        /**
+         * Requests per second the rate grows by every second while no request is throttled.
+         */
+        private double additiveIncrease = 50;
+        /**
+         * Factor applied to the rate when a request is throttled.
+         */
+        private double decreaseFactor = 0.5;
+        private Duration decreaseCooldown = Duration.ofSeconds(1);
+        /**
+         * Requests that can be sent at once after an idle period, as a share of the rate.
+         */
+        private Duration burst = Duration.ofMillis(100);
+        /**
+         * Number of leading key segments (delimited by '/') that make up the prefix a limit applies to,
+         * zero applies a single limit to the whole bucket.
+         */
+        private int prefixDepth = 1;
+        /**
+         * Maximum number of prefixes with their own limit, the least recently used ones are dropped first.
+         */
+        private long maximumPrefixes = 1_000;
+        private Duration prefixIdleTime = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,41 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.job")
+public class S3JobProperties {
+
+    /**
+     * Directory of the job files, jobs found there on startup which haven't finished are resumed. It must survive
+     * a restart of the host or container, unlike the temporary directory, or unfinished jobs are lost.
+     */
+    private Path directory = Path.of("data", "jobs");
+
+    /**
+     * Maximum number of jobs running at the same time, further jobs are queued. The S3 calls of a job are bounded
+     * by the parallelism of its operation, e.g. {@code aws.s3.transfer.copy-parallelism}.
+     */
+    private int maxRunningJobs = 2;
+
+    /**
+     * How often the progress of a running job is written to its file.
+     */
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+
+    /**
+     * Finished jobs are kept this long, older ones are removed on startup.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * How long shutdown waits for the running jobs to finish the objects they have started, they are resumed on the next start.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
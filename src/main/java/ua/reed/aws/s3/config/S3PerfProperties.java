@@ -0,0 +1,43 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the in-process S3 stand-in used with the {@code perf} profile, see {@link PerfS3Config}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.perf")
+public class S3PerfProperties {
+
+    /**
+     * Fixed latency of every S3 call.
+     */
+    private Duration latency = Duration.ZERO;
+
+    /**
+     * Random latency of up to this duration added on top of the fixed one.
+     */
+    private Duration latencyJitter = Duration.ZERO;
+
+    /**
+     * Share of S3 calls failing with 500 InternalError, between 0 and 1.
+     */
+    private double errorRate = 0;
+
+    /**
+     * Share of S3 calls failing with 503 SlowDown, between 0 and 1.
+     */
+    private double throttleRate = 0;
+
+    /**
+     * Buckets which exist from the start.
+     */
+    private List<String> buckets = new ArrayList<>();
+}
@@ -0,0 +1,99 @@
+package ua.reed.aws.s3.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "aws.s3.transfer")
+public class S3TransferProperties {
+
+    /**
+     * Size of the buffer used to copy an object body from S3 to the servlet output.
+     */
+    private DataSize downloadBufferSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Uploads of this size and bigger are sent as S3 multipart uploads, smaller ones with a single PutObject.
+     */
+    private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+
+    /**
+     * Size of a single part of a multipart upload, S3 requires at least 5MB for every part except the last one.
+     */
+    private DataSize partSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Maximum number of parts of a single upload that are buffered and sent to S3 at the same time.
+     */
+    private int maxPartsInFlight = 4;
+
+    /**
+     * Number of threads shared by all transfers for sending parts to S3. Not used with virtual threads,
+     * where every task gets its own thread.
+     */
+    private int executorThreads = 16;
+
+    /**
+     * Size of a byte range fetched by a single GET when an object is downloaded in parallel.
+     */
+    private DataSize parallelDownloadPartSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Maximum number of byte ranges of a single object fetched (and buffered) at the same time.
+     */
+    private int parallelDownloadParallelism = 8;
+
+    /**
+     * Maximum number of DeleteObjects requests (up to 1000 keys each) of a single batch delete sent at the same time.
+     */
+    private int batchDeleteParallelism = 4;
+
+    /**
+     * Maximum number of tagging calls of a single bulk tagging request sent at the same time.
+     */
+    private int bulkTagParallelism = 16;
+
+    /**
+     * Maximum number of objects tagged per second by a single bulk tagging request, zero disables the limit.
+     */
+    private double bulkTagRate = 200;
+
+    /**
+     * Number of objects of an archive download requested ahead of the one being written.
+     */
+    private int archivePrefetchObjects = 8;
+
+    /**
+     * Bytes fetched ahead of every prefetched object of an archive download, the rest is requested when the object is written.
+     */
+    private DataSize archivePrefetchSize = DataSize.ofMegabytes(1);
+
+    /**
+     * Deflate level of ZIP archive downloads, from 0 (no compression) to 9. Objects are often compressed already,
+     * a low level keeps the CPU cost down.
+     */
+    private int archiveCompressionLevel = 1;
+
+    /**
+     * Maximum number of objects of a single copy or move request copied at the same time.
+     */
+    private int copyParallelism = 16;
+
+    /**
+     * Objects bigger than this are copied part by part, S3 copies at most 5GB with a single CopyObject.
+     */
+    private DataSize copyMultipartThreshold = DataSize.ofGigabytes(5);
+
+    /**
+     * Size of a single part of a multipart copy, raised when the object would need more than 10000 parts.
+     */
+    private DataSize copyPartSize = DataSize.ofMegabytes(512);
+
+    /**
+     * Maximum number of parts of a single object copied at the same time.
+     */
+    private int copyPartParallelism = 8;
+}
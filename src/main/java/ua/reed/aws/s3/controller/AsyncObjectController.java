@@ -0,0 +1,82 @@
+package ua.reed.aws.s3.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.AddTagsRequestDto;
+import ua.reed.aws.s3.dto.ObjectInfoDto;
+import ua.reed.aws.s3.service.AsyncObjectService;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Same operations as {@link ObjectController} served by {@link AsyncObjectService}: the servlet thread is released
+ * as soon as the S3 call is started, so the number of requests in flight doesn't depend on the Tomcat thread pool.
+ * Enabled with {@code aws.s3.async.enabled=true}, which makes it possible to load test both data paths side by side.
+ */
+@RestController
+@RequestMapping("/api/async/objects")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aws.s3.async", name = "enabled", havingValue = "true")
+public class AsyncObjectController {
+
+    private final AsyncObjectService asyncObjectService;
+    private final S3TransferProperties transferProperties;
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> downloadObject(@RequestParam("bucketName") final String bucketName,
+                                                                                   @RequestParam("objectKey") final String objectKey) {
+        int bufferSize = (int) this.transferProperties.getDownloadBufferSize().toBytes();
+        return this.asyncObjectService.getObject(bucketName, objectKey)
+                .thenApply(objectStream -> ResponseEntity.ok()
+                        .contentLength(objectStream.response().contentLength())
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=".concat(objectKey))
+                        .body(outputStream -> S3Utils.transfer(objectStream, outputStream, bufferSize))
+                );
+    }
+
+    @PostMapping("/tags")
+    public CompletableFuture<ResponseEntity<Void>> addTagsToObject(@RequestBody final AddTagsRequestDto request) {
+        return this.asyncObjectService.addTags(request)
+                .thenApply(result -> ResponseEntity.status(HttpStatus.CREATED).build());
+    }
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<Void>> uploadObject(@RequestParam("bucketName") final String bucketName,
+                                                                @RequestParam("objectKey") final String objectKey,
+                                                                @RequestParam("file") final MultipartFile file) {
+        return this.asyncObjectService.createObject(bucketName, objectKey, file)
+                .thenApply(result -> ResponseEntity.status(HttpStatus.CREATED).build());
+    }
+
+    @DeleteMapping
+    public CompletableFuture<ResponseEntity<Void>> deleteObject(@RequestParam("bucketName") final String bucketName,
+                                                                @RequestParam("objectKey") final String objectKey) {
+        return this.asyncObjectService.deleteObject(bucketName, objectKey)
+                .thenApply(result -> ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/info")
+    public CompletableFuture<ResponseEntity<ObjectInfoDto>> getObjectInfo(@RequestParam("bucketName") final String bucketName,
+                                                                          @RequestParam("objectKey") final String objectKey) {
+        return this.asyncObjectService.getObjectInfo(bucketName, objectKey)
+                .thenApply(objectInfo -> ResponseEntity.ok()
+                        .body(objectInfo)
+                );
+    }
+}
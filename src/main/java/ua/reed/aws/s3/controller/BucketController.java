@@ -17,6 +17,7 @@ import ua.reed.aws.s3.dto.CreateBucketRequestDto;
 import ua.reed.aws.s3.dto.CreateBucketResponseDto;
 import ua.reed.aws.s3.dto.GetBucketResponseDto;
 import ua.reed.aws.s3.dto.BucketInfoDto;
+import ua.reed.aws.s3.dto.BucketDeletionDto;
 import ua.reed.aws.s3.service.BucketService;
 
 @RestController
@@ -51,6 +52,12 @@ public class BucketController {
         this.bucketService.deleteBucket(bucketName);
     }
 
+    @DeleteMapping("/force")
+    public ResponseEntity<BucketDeletionDto> forceDeleteBucket(@RequestParam("bucketName") final String bucketName) {
+        return ResponseEntity.ok()
+                .body(this.bucketService.forceDeleteBucket(bucketName));
+    }
+
     @GetMapping("/info")
     public ResponseEntity<BucketInfoDto> getBucketInfo(@RequestParam("bucketName") final String bucketName) {
         BucketInfoDto result = this.bucketService.getBucketInfo(bucketName);
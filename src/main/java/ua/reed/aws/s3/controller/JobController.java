@@ -0,0 +1,79 @@
+package ua.reed.aws.s3.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ua.reed.aws.s3.dto.BatchDeleteRequestDto;
+import ua.reed.aws.s3.dto.BulkTagRequestDto;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
+import ua.reed.aws.s3.dto.DeleteBucketRequestDto;
+import ua.reed.aws.s3.dto.JobDto;
+import ua.reed.aws.s3.service.JobService;
+
+import java.util.List;
+
+/**
+ * Background counterparts of the bulk operations of {@link ObjectController} and of the forced bucket deletion
+ * of {@link BucketController}, a submitted job is answered
+ * with its id right away and followed by polling {@code GET /api/jobs/{jobId}}.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+    private final JobService jobService;
+
+    @PostMapping("/delete")
+    public ResponseEntity<JobDto> deleteObjects(@RequestBody final BatchDeleteRequestDto request) {
+        return ResponseEntity.accepted()
+                .body(this.jobService.deleteObjects(request));
+    }
+
+    @PostMapping("/tags")
+    public ResponseEntity<JobDto> addTags(@RequestBody final BulkTagRequestDto request) {
+        return ResponseEntity.accepted()
+                .body(this.jobService.addTags(request));
+    }
+
+    @PostMapping("/copy")
+    public ResponseEntity<JobDto> copyObjects(@RequestBody final CopyObjectsRequestDto request) {
+        return ResponseEntity.accepted()
+                .body(this.jobService.copyObjects(request));
+    }
+
+    @PostMapping("/move")
+    public ResponseEntity<JobDto> moveObjects(@RequestBody final CopyObjectsRequestDto request) {
+        return ResponseEntity.accepted()
+                .body(this.jobService.moveObjects(request));
+    }
+
+    @PostMapping("/delete-bucket")
+    public ResponseEntity<JobDto> deleteBucket(@RequestBody final DeleteBucketRequestDto request) {
+        return ResponseEntity.accepted()
+                .body(this.jobService.deleteBucket(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<JobDto>> getJobs() {
+        return ResponseEntity.ok()
+                .body(this.jobService.getJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobDto> getJob(@PathVariable("jobId") final String jobId) {
+        return ResponseEntity.ok()
+                .body(this.jobService.getJob(jobId));
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<JobDto> cancelJob(@PathVariable("jobId") final String jobId) {
+        return ResponseEntity.ok()
+                .body(this.jobService.cancelJob(jobId));
+    }
+}
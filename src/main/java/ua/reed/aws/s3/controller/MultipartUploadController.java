@@ -0,0 +1,59 @@
+package ua.reed.aws.s3.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ua.reed.aws.s3.dto.CompleteMultipartUploadRequestDto;
+import ua.reed.aws.s3.dto.CompleteMultipartUploadResponseDto;
+import ua.reed.aws.s3.dto.InitiateMultipartUploadRequestDto;
+import ua.reed.aws.s3.dto.InitiateMultipartUploadResponseDto;
+import ua.reed.aws.s3.dto.PreSignPartsRequestDto;
+import ua.reed.aws.s3.dto.PreSignedPartUrlDto;
+import ua.reed.aws.s3.service.MultipartUploadService;
+
+import java.util.List;
+
+/**
+ * Client-direct uploads: the client starts an upload here, PUTs the parts to the returned urls
+ * and reports the part ETags back to complete it.
+ */
+@RestController
+@RequestMapping("/api/multipart-uploads")
+@RequiredArgsConstructor
+public class MultipartUploadController {
+
+    private final MultipartUploadService multipartUploadService;
+
+    @PostMapping
+    public ResponseEntity<InitiateMultipartUploadResponseDto> initiateUpload(@RequestBody final InitiateMultipartUploadRequestDto request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(this.multipartUploadService.initiateUpload(request));
+    }
+
+    @PostMapping("/parts")
+    public ResponseEntity<List<PreSignedPartUrlDto>> preSignParts(@RequestBody final PreSignPartsRequestDto request) {
+        return ResponseEntity.ok()
+                .body(this.multipartUploadService.preSignParts(request));
+    }
+
+    @PostMapping("/complete")
+    public ResponseEntity<CompleteMultipartUploadResponseDto> completeUpload(@RequestBody final CompleteMultipartUploadRequestDto request) {
+        return ResponseEntity.ok()
+                .body(this.multipartUploadService.completeUpload(request));
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void abortUpload(@RequestParam("bucketName") final String bucketName,
+                            @RequestParam("objectKey") final String objectKey,
+                            @RequestParam("uploadId") final String uploadId) {
+        this.multipartUploadService.abortUpload(bucketName, objectKey, uploadId);
+    }
+}
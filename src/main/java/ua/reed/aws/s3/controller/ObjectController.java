@@ -1,25 +1,50 @@
 package ua.reed.aws.s3.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.ResponseBytes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import ua.reed.aws.s3.cache.ObjectContent;
+import ua.reed.aws.s3.cache.ObjectContentCache;
+import ua.reed.aws.s3.config.S3TransferProperties;
 import ua.reed.aws.s3.dto.AddTagsRequestDto;
+import ua.reed.aws.s3.dto.ArchiveRequestDto;
+import ua.reed.aws.s3.dto.BatchDeleteRequestDto;
+import ua.reed.aws.s3.dto.BatchDeleteResponseDto;
+import ua.reed.aws.s3.dto.BulkTagRequestDto;
+import ua.reed.aws.s3.dto.BulkTagResponseDto;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
+import ua.reed.aws.s3.dto.CopyObjectsResponseDto;
 import ua.reed.aws.s3.dto.ObjectInfoDto;
+import ua.reed.aws.s3.dto.ObjectSummaryDto;
+import ua.reed.aws.s3.enums.ArchiveFormat;
+import ua.reed.aws.s3.exception.ObjectNotModifiedException;
 import ua.reed.aws.s3.service.ObjectService;
+import ua.reed.aws.s3.service.model.GetObjectOptions;
+import ua.reed.aws.s3.service.model.ListObjectsOptions;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/objects")
@@ -27,18 +52,77 @@ import ua.reed.aws.s3.service.ObjectService;
 public class ObjectController {
 
     private final ObjectService objectService;
+    private final ObjectContentCache objectContentCache;
+    private final S3TransferProperties transferProperties;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Supports conditional requests: {@code If-None-Match} and {@code If-Modified-Since} are evaluated against
+     * the current object version and answered with 304 without a body when the client's copy is still valid.
+     */
     @GetMapping
-    public ResponseEntity<byte[]> downloadObject(@RequestParam("bucketName") final String bucketName,
-                                                 @RequestParam("objectKey") final String objectKey,
-                                                 final HttpServletResponse response) {
-        ResponseBytes<GetObjectResponse> responseBytes = this.objectService.getObject(bucketName, objectKey);
-        byte[] object = responseBytes.asByteArray();
-        response.setContentLength(object.length);
-        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=".concat(objectKey));
+    public ResponseEntity<StreamingResponseBody> downloadObject(@RequestParam("bucketName") final String bucketName,
+                                                                @RequestParam("objectKey") final String objectKey,
+                                                                @RequestParam(value = "parallel", defaultValue = "false") final boolean parallel,
+                                                                @RequestHeader(value = HttpHeaders.RANGE, required = false) final String range,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+                                                                @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) final String ifModifiedSince) {
+        GetObjectOptions options = GetObjectOptions.builder()
+                .bucketName(bucketName)
+                .objectKey(objectKey)
+                .ifNoneMatch(ifNoneMatch)
+                .ifModifiedSince(S3Utils.parseHttpDate(ifModifiedSince))
+                .build();
+        if (range != null) {
+            // a client asking for a part of the object gets exactly that part with a single ranged GET
+            options.setRange(range);
+            ResponseInputStream<GetObjectResponse> objectStream = this.objectService.getObject(options);
+            GetObjectResponse metadata = objectStream.response();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+            if (metadata.contentRange() != null) {
+                responseBuilder = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.CONTENT_RANGE, metadata.contentRange());
+            }
+            return withValidators(responseBuilder, metadata.eTag(), metadata.lastModified())
+                    .contentLength(metadata.contentLength())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=".concat(objectKey))
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body(streamingBody(objectStream));
+        }
+        if (parallel) {
+            ObjectInfoDto objectInfo = this.objectService.getObjectInfo(bucketName, objectKey);
+            if (S3Utils.isNotModified(objectInfo.eTag(), objectInfo.lastModified(), options.getIfNoneMatch(), options.getIfModifiedSince())) {
+                throw new ObjectNotModifiedException(bucketName, objectKey, objectInfo.eTag());
+            }
+            return withValidators(ResponseEntity.ok(), objectInfo.eTag(), objectInfo.lastModified())
+                    .contentLength(objectInfo.contentLength())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=".concat(objectKey))
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body(outputStream -> this.objectService.downloadObjectInParallel(bucketName, objectInfo, outputStream));
+        }
+        ObjectContent content = this.objectContentCache.getObject(options);
+        return withValidators(ResponseEntity.ok(), content.eTag(), content.lastModified())
+                .contentLength(content.contentLength())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=".concat(objectKey))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(content::writeTo);
+    }
+
+    /**
+     * Streams the selected objects as one ZIP or TAR archive while it is being built.
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<StreamingResponseBody> downloadArchive(@RequestBody final ArchiveRequestDto request) {
+        S3Utils.validateBucketName(request.bucketName());
+        S3Utils.validateObjectSelection(request.objectKeys(), request.prefix());
+        ArchiveFormat format = request.format() == null ? ArchiveFormat.ZIP : request.format();
         return ResponseEntity.ok()
-                .body(object);
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=".concat(request.bucketName()).concat(format.getFileExtension()))
+                .body(outputStream -> this.objectService.writeArchive(request, outputStream));
     }
 
     @GetMapping("/secured")
@@ -59,6 +143,30 @@ public class ObjectController {
         this.objectService.addTags(request);
     }
 
+    @PostMapping("/tags/bulk")
+    public ResponseEntity<BulkTagResponseDto> addTagsToObjects(@RequestBody final BulkTagRequestDto request) {
+        return ResponseEntity.ok()
+                .body(this.objectService.addTags(request));
+    }
+
+    /**
+     * Copies the selected objects within S3, see {@link CopyObjectsRequestDto} for the target keys and resuming.
+     */
+    @PostMapping("/copy")
+    public ResponseEntity<CopyObjectsResponseDto> copyObjects(@RequestBody final CopyObjectsRequestDto request) {
+        return ResponseEntity.ok()
+                .body(this.objectService.copyObjects(request));
+    }
+
+    /**
+     * Like {@code /copy}, every source object is deleted once it has been copied.
+     */
+    @PostMapping("/move")
+    public ResponseEntity<CopyObjectsResponseDto> moveObjects(@RequestBody final CopyObjectsRequestDto request) {
+        return ResponseEntity.ok()
+                .body(this.objectService.moveObjects(request));
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public void uploadObject(@RequestParam("bucketName") final String bucketName,
@@ -82,6 +190,12 @@ public class ObjectController {
         this.objectService.deleteObject(bucketName, objectKey);
     }
 
+    @PostMapping("/batch-delete")
+    public ResponseEntity<BatchDeleteResponseDto> deleteObjects(@RequestBody final BatchDeleteRequestDto request) {
+        return ResponseEntity.ok()
+                .body(this.objectService.deleteObjects(request));
+    }
+
     @DeleteMapping("/secured")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteObjectByPreSignedUrl(@RequestParam("bucketName") final String bucketName,
@@ -96,4 +210,68 @@ public class ObjectController {
         return ResponseEntity.ok()
                 .body(objectInfo);
     }
+
+    /**
+     * Streams the listing as newline delimited JSON while the pages arrive from S3.
+     */
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listObjects(@RequestParam("bucketName") final String bucketName,
+                                                             @RequestParam(value = "prefix", required = false) final String prefix,
+                                                             @RequestParam(value = "delimiter", required = false) final String delimiter,
+                                                             @RequestParam(value = "startAfter", required = false) final String startAfter,
+                                                             @RequestParam(value = "maxKeys", required = false) final Integer maxKeys) {
+        Stream<ObjectSummaryDto> objects = this.objectService.listObjects(
+                ListObjectsOptions.builder()
+                        .bucketName(bucketName)
+                        .prefix(prefix)
+                        .delimiter(delimiter)
+                        .startAfter(startAfter)
+                        .maxKeys(maxKeys)
+                        .build()
+        );
+        StreamingResponseBody body = outputStream -> {
+            try (objects) {
+                Iterator<ObjectSummaryDto> iterator = objects.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(this.objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @ExceptionHandler(ObjectNotModifiedException.class)
+    public ResponseEntity<Void> handleNotModified(final ObjectNotModifiedException ex) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache());
+        if (ex.getETag() != null) {
+            responseBuilder.eTag(ex.getETag());
+        }
+        return responseBuilder.build();
+    }
+
+    /**
+     * Objects may change at any time, so clients and shared caches are allowed to keep them but must revalidate.
+     */
+    private ResponseEntity.BodyBuilder withValidators(final ResponseEntity.BodyBuilder responseBuilder,
+                                                      final String eTag,
+                                                      final Instant lastModified) {
+        responseBuilder.cacheControl(CacheControl.noCache());
+        if (eTag != null) {
+            responseBuilder.eTag(eTag);
+        }
+        if (lastModified != null) {
+            responseBuilder.lastModified(lastModified);
+        }
+        return responseBuilder;
+    }
+
+    private StreamingResponseBody streamingBody(final ResponseInputStream<GetObjectResponse> objectStream) {
+        int bufferSize = (int) this.transferProperties.getDownloadBufferSize().toBytes();
+        return outputStream -> S3Utils.transfer(objectStream, outputStream, bufferSize);
+    }
 }
@@ -0,0 +1,32 @@
+package ua.reed.aws.s3.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ua.reed.aws.s3.dto.BulkPreSignedUrlRequestDto;
+import ua.reed.aws.s3.dto.BulkPreSignedUrlResponseDto;
+import ua.reed.aws.s3.service.PreSignedUrlService;
+
+@RestController
+@RequestMapping("/api/pre-signed-urls")
+@RequiredArgsConstructor
+public class PreSignedUrlController {
+
+    private final PreSignedUrlService preSignedUrlService;
+
+    /**
+     * Signs many keys of one bucket in a single call, e.g. all images of a gallery page.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkPreSignedUrlResponseDto> generatePreSignedUrls(@RequestBody final BulkPreSignedUrlRequestDto request) {
+        return ResponseEntity.ok()
+                .body(new BulkPreSignedUrlResponseDto(
+                        request.bucketName(),
+                        request.operationType(),
+                        this.preSignedUrlService.generatePreSignedUrls(request.bucketName(), request.objectKeys(), request.operationType())
+                ));
+    }
+}
@@ -0,0 +1,11 @@
+package ua.reed.aws.s3.dto;
+
+import ua.reed.aws.s3.enums.ArchiveFormat;
+
+import java.util.List;
+
+/**
+ * Either {@code objectKeys} or {@code prefix} selects the objects to archive, {@code format} is ZIP when not set.
+ */
+public record ArchiveRequestDto(String bucketName, List<String> objectKeys, String prefix, ArchiveFormat format) {
+}
@@ -0,0 +1,9 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+/**
+ * Either {@code objectKeys} or {@code prefix} selects the objects to delete.
+ */
+public record BatchDeleteRequestDto(String bucketName, List<String> objectKeys, String prefix) {
+}
@@ -0,0 +1,11 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+public record BatchDeleteResponseDto(String bucketName, long deleted, long failed, List<ObjectOperationResultDto> results) {
+
+    public static BatchDeleteResponseDto of(String bucketName, List<ObjectOperationResultDto> results) {
+        long deleted = results.stream().filter(ObjectOperationResultDto::success).count();
+        return new BatchDeleteResponseDto(bucketName, deleted, results.size() - deleted, results);
+    }
+}
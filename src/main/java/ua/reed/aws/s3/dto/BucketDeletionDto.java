@@ -0,0 +1,20 @@
+package ua.reed.aws.s3.dto;
+
+public record BucketDeletionDto(String bucketName,
+                                boolean deleted,
+                                long deletedVersions,
+                                long failedVersions,
+                                long abortedUploads,
+                                long elapsedMillis,
+                                double versionsPerSecond) {
+
+    public static BucketDeletionDto of(String bucketName,
+                                       boolean deleted,
+                                       long deletedVersions,
+                                       long failedVersions,
+                                       long abortedUploads,
+                                       long elapsedMillis) {
+        double versionsPerSecond = elapsedMillis == 0 ? 0 : (deletedVersions + failedVersions) * 1000.0 / elapsedMillis;
+        return new BucketDeletionDto(bucketName, deleted, deletedVersions, failedVersions, abortedUploads, elapsedMillis, versionsPerSecond);
+    }
+}
@@ -0,0 +1,8 @@
+package ua.reed.aws.s3.dto;
+
+import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
+
+import java.util.List;
+
+public record BulkPreSignedUrlRequestDto(String bucketName, List<String> objectKeys, PreSignedUrlOperationType operationType) {
+}
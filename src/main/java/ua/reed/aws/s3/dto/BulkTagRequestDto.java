@@ -0,0 +1,10 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+/**
+ * Either {@code objectKeys} or {@code prefix} selects the objects to tag. With {@code merge} the tags are added to
+ * the existing ones of every object (a tag with the same key is overwritten), otherwise they replace the whole tag set.
+ */
+public record BulkTagRequestDto(String bucketName, List<String> objectKeys, String prefix, List<CustomTagDto> tags, boolean merge) {
+}
@@ -0,0 +1,13 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+/**
+ * Counts of a bulk tagging with the failed objects only, so the response stays small however many objects were tagged.
+ */
+public record BulkTagResponseDto(String bucketName, long tagged, long failed, List<ObjectOperationResultDto> failures) {
+
+    public static BulkTagResponseDto of(String bucketName, long tagged, List<ObjectOperationResultDto> failures) {
+        return new BulkTagResponseDto(bucketName, tagged, failures.size(), failures);
+    }
+}
@@ -0,0 +1,6 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+public record CompleteMultipartUploadRequestDto(String bucketName, String objectKey, String uploadId, List<CompletedPartDto> parts) {
+}
@@ -0,0 +1,18 @@
+package ua.reed.aws.s3.dto;
+
+import ua.reed.aws.s3.enums.CopyStatus;
+
+public record CopyObjectResultDto(String sourceKey, String targetKey, CopyStatus status, String errorCode, String errorMessage) {
+
+    public static CopyObjectResultDto copied(String sourceKey, String targetKey) {
+        return new CopyObjectResultDto(sourceKey, targetKey, CopyStatus.COPIED, null, null);
+    }
+
+    public static CopyObjectResultDto skipped(String sourceKey, String targetKey) {
+        return new CopyObjectResultDto(sourceKey, targetKey, CopyStatus.SKIPPED, null, null);
+    }
+
+    public static CopyObjectResultDto failed(String sourceKey, String targetKey, String errorCode, String errorMessage) {
+        return new CopyObjectResultDto(sourceKey, targetKey, CopyStatus.FAILED, errorCode, errorMessage);
+    }
+}
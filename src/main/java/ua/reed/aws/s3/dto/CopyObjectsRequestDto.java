@@ -0,0 +1,17 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+/**
+ * Either {@code objectKeys} or {@code prefix} selects the objects of the source bucket. An object is copied to
+ * {@code targetPrefix} followed by its key, relative to {@code prefix} when the objects are selected by prefix.
+ * With {@code skipExisting} an object is not copied again when the target already has one of the same size which
+ * isn't older than the source, so an interrupted copy or move can be resumed by repeating the request.
+ */
+public record CopyObjectsRequestDto(String sourceBucketName,
+                                    List<String> objectKeys,
+                                    String prefix,
+                                    String targetBucketName,
+                                    String targetPrefix,
+                                    boolean skipExisting) {
+}
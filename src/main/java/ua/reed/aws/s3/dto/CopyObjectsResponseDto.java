@@ -0,0 +1,24 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+/**
+ * Counts of a copy or move with the failed objects only, so the response stays small however many objects were copied.
+ */
+public record CopyObjectsResponseDto(String sourceBucketName,
+                                     String targetBucketName,
+                                     boolean move,
+                                     long copied,
+                                     long skipped,
+                                     long failed,
+                                     List<CopyObjectResultDto> failures) {
+
+    public static CopyObjectsResponseDto of(String sourceBucketName,
+                                            String targetBucketName,
+                                            boolean move,
+                                            long copied,
+                                            long skipped,
+                                            List<CopyObjectResultDto> failures) {
+        return new CopyObjectsResponseDto(sourceBucketName, targetBucketName, move, copied, skipped, failures.size(), failures);
+    }
+}
@@ -0,0 +1,4 @@
+package ua.reed.aws.s3.dto;
+
+public record DeleteBucketRequestDto(String bucketName) {
+}
@@ -0,0 +1,7 @@
+package ua.reed.aws.s3.dto;
+
+/**
+ * {@code partCount} urls are signed right away, more can be requested later.
+ */
+public record InitiateMultipartUploadRequestDto(String bucketName, String objectKey, String contentType, Integer partCount) {
+}
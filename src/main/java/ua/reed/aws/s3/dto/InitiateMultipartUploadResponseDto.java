@@ -0,0 +1,13 @@
+package ua.reed.aws.s3.dto;
+
+import java.util.List;
+
+/**
+ * {@code partSize} is the recommended size of each part but the last one, S3 rejects parts smaller than 5MB.
+ */
+public record InitiateMultipartUploadResponseDto(String bucketName,
+                                                 String objectKey,
+                                                 String uploadId,
+                                                 long partSize,
+                                                 List<PreSignedPartUrlDto> parts) {
+}
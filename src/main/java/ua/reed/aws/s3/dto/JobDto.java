@@ -0,0 +1,30 @@
+package ua.reed.aws.s3.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import ua.reed.aws.s3.enums.JobStatus;
+import ua.reed.aws.s3.enums.JobType;
+
+import java.time.Instant;
+
+/**
+ * State of a background job, also the content of its checkpoint file. Every object of the selection up to and
+ * including {@code lastKey} is done, a resumed job continues after it. Objects after it may have been processed
+ * before the job was interrupted, they are processed (and counted) again.
+ */
+public record JobDto(String jobId,
+                     JobType type,
+                     JobStatus status,
+                     JsonNode request,
+                     Instant createdAt,
+                     Instant startedAt,
+                     Instant finishedAt,
+                     long succeeded,
+                     long skipped,
+                     long failed,
+                     String lastKey,
+                     String errorMessage) {
+
+    public static JobDto queued(String jobId, JobType type, JsonNode request) {
+        return new JobDto(jobId, type, JobStatus.QUEUED, request, Instant.now(), null, null, 0, 0, 0, null, null);
+    }
+}
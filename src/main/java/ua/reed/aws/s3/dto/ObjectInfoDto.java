@@ -9,6 +9,7 @@ public record ObjectInfoDto(String objectKey,
                             String contentType,
                             Long contentLength,
                             String eTag,
+                            Instant lastModified,
                             String expiration,
                             Instant expires) {
 }
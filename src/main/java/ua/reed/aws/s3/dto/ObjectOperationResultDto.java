@@ -0,0 +1,12 @@
+package ua.reed.aws.s3.dto;
+
+public record ObjectOperationResultDto(String objectKey, boolean success, String errorCode, String errorMessage) {
+
+    public static ObjectOperationResultDto succeeded(String objectKey) {
+        return new ObjectOperationResultDto(objectKey, true, null, null);
+    }
+
+    public static ObjectOperationResultDto failed(String objectKey, String errorCode, String errorMessage) {
+        return new ObjectOperationResultDto(objectKey, false, errorCode, errorMessage);
+    }
+}
@@ -0,0 +1,17 @@
+package ua.reed.aws.s3.dto;
+
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * An entry of a bucket listing, either an object or a common prefix when the listing uses a delimiter.
+ */
+@Builder
+public record ObjectSummaryDto(String objectKey,
+                               Long size,
+                               String eTag,
+                               Instant lastModified,
+                               String storageClass,
+                               boolean commonPrefix) {
+}
@@ -0,0 +1,4 @@
+package ua.reed.aws.s3.dto;
+
+public record PreSignPartsRequestDto(String bucketName, String objectKey, String uploadId, int firstPartNumber, int partCount) {
+}
@@ -0,0 +1,6 @@
+package ua.reed.aws.s3.dto;
+
+import java.time.Instant;
+
+public record PreSignedPartUrlDto(int partNumber, String url, Instant expiration) {
+}
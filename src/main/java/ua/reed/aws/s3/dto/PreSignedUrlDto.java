@@ -0,0 +1,6 @@
+package ua.reed.aws.s3.dto;
+
+import java.time.Instant;
+
+public record PreSignedUrlDto(String objectKey, String url, Instant expiration) {
+}
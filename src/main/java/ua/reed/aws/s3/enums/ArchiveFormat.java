@@ -0,0 +1,14 @@
+package ua.reed.aws.s3.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ArchiveFormat {
+    ZIP("application/zip", ".zip"),
+    TAR("application/x-tar", ".tar");
+
+    private final String contentType;
+    private final String fileExtension;
+}
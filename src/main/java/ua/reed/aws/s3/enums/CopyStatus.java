@@ -0,0 +1,5 @@
+package ua.reed.aws.s3.enums;
+
+public enum CopyStatus {
+    COPIED, SKIPPED, FAILED;
+}
@@ -0,0 +1,9 @@
+package ua.reed.aws.s3.enums;
+
+public enum JobType {
+    DELETE_OBJECTS,
+    TAG_OBJECTS,
+    COPY_OBJECTS,
+    MOVE_OBJECTS,
+    DELETE_BUCKET
+}
@@ -1,5 +1,5 @@
 package ua.reed.aws.s3.enums;
 
 public enum PreSignedUrlOperationType {
-    GET_OBJECT, PUT_OBJECT, DELETE_OBJECT;
+    GET_OBJECT, PUT_OBJECT, DELETE_OBJECT, UPLOAD_PART;
 }
@@ -0,0 +1,28 @@
+package ua.reed.aws.s3.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a conditional GET finds the object unchanged (HTTP 304), i.e. the caller's copy is still valid.
+ */
+@Getter
+public class ObjectNotModifiedException extends RuntimeException {
+
+    private final String bucketName;
+    private final String objectKey;
+    /**
+     * Current ETag of the object, {@code null} when S3 didn't return it.
+     */
+    private final String eTag;
+
+    public ObjectNotModifiedException(final String bucketName, final String objectKey, final String eTag) {
+        this(bucketName, objectKey, eTag, null);
+    }
+
+    public ObjectNotModifiedException(final String bucketName, final String objectKey, final String eTag, final Throwable cause) {
+        super("Object with key='%s' in bucket='%s' is not modified".formatted(objectKey, bucketName), cause);
+        this.bucketName = bucketName;
+        this.objectKey = objectKey;
+        this.eTag = eTag;
+    }
+}
@@ -0,0 +1,169 @@
+package ua.reed.aws.s3.job;
+
+import ua.reed.aws.s3.dto.JobDto;
+import ua.reed.aws.s3.enums.JobStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a job while it runs. Objects complete out of order, so the checkpoint moves past a key only once
+ * every key selected before it is done too: a job resumed from it never skips an object.
+ */
+public class JobProgress {
+
+    private final JobDto job;
+    private final AtomicLong succeeded;
+    private final AtomicLong skipped;
+    private final AtomicLong failed;
+    private final Map<String, Long> inFlight = new HashMap<>();
+    private final NavigableMap<Long, String> completed = new TreeMap<>();
+    private long nextPosition;
+    private long position;
+    private String lastKey;
+    private long lastCheckpoint = System.nanoTime();
+    private volatile JobStatus status;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+    private volatile boolean cancelled;
+    private volatile boolean stopped;
+
+    public JobProgress(final JobDto job) {
+        this.job = job;
+        this.succeeded = new AtomicLong(job.succeeded());
+        this.skipped = new AtomicLong(job.skipped());
+        this.failed = new AtomicLong(job.failed());
+        this.lastKey = job.lastKey();
+        this.status = job.status();
+        this.startedAt = job.startedAt();
+    }
+
+    public JobDto getJob() {
+        return this.job;
+    }
+
+    public void start() {
+        this.status = JobStatus.RUNNING;
+        if (this.startedAt == null) {
+            this.startedAt = Instant.now();
+        }
+    }
+
+    public void finish(final JobStatus status, final String errorMessage) {
+        this.status = status;
+        this.errorMessage = errorMessage;
+        this.finishedAt = status.isFinished() ? Instant.now() : null;
+    }
+
+    /**
+     * @return whether the object may be processed, {@code false} once the job is cancelled or stopped
+     */
+    public synchronized boolean select(final String objectKey) {
+        if (this.cancelled || this.stopped) {
+            return false;
+        }
+        this.inFlight.put(objectKey, this.nextPosition++);
+        return true;
+    }
+
+    /**
+     * Selection of a job without a checkpoint key, like a bucket deletion whose version keys repeat.
+     *
+     * @return whether the object may be processed, {@code false} once the job is cancelled or stopped
+     */
+    public boolean select() {
+        return !this.cancelled && !this.stopped;
+    }
+
+    public void succeeded() {
+        this.succeeded.incrementAndGet();
+    }
+
+    public void failed() {
+        this.failed.incrementAndGet();
+    }
+
+    public void succeeded(final String objectKey) {
+        this.succeeded.incrementAndGet();
+        complete(objectKey);
+    }
+
+    public void skipped(final String objectKey) {
+        this.skipped.incrementAndGet();
+        complete(objectKey);
+    }
+
+    public void failed(final String objectKey) {
+        this.failed.incrementAndGet();
+        complete(objectKey);
+    }
+
+    /**
+     * @return whether the checkpoint interval has passed since the last time this returned {@code true}
+     */
+    public synchronized boolean isCheckpointDue(final Duration checkpointInterval) {
+        long now = System.nanoTime();
+        if (now - this.lastCheckpoint < checkpointInterval.toNanos()) {
+            return false;
+        }
+        this.lastCheckpoint = now;
+        return true;
+    }
+
+    /**
+     * No further objects are selected and the job ends as cancelled.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * No further objects are selected, the job is left unfinished and resumed on the next start.
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    public synchronized JobDto snapshot() {
+        return new JobDto(
+                this.job.jobId(),
+                this.job.type(),
+                this.status,
+                this.job.request(),
+                this.job.createdAt(),
+                this.startedAt,
+                this.finishedAt,
+                this.succeeded.get(),
+                this.skipped.get(),
+                this.failed.get(),
+                this.lastKey,
+                this.errorMessage
+        );
+    }
+
+    private synchronized void complete(final String objectKey) {
+        Long objectPosition = this.inFlight.remove(objectKey);
+        if (objectPosition == null) {
+            return;
+        }
+        this.completed.put(objectPosition, objectKey);
+        while (!this.completed.isEmpty() && this.completed.firstKey() == this.position) {
+            this.lastKey = this.completed.pollFirstEntry().getValue();
+            this.position++;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ua.reed.aws.s3.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ua.reed.aws.s3.config.S3JobProperties;
+import ua.reed.aws.s3.dto.JobDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every job in a JSON file of its own. A file is written next to the old one and moved over it,
+ * so a crash never leaves a half written checkpoint behind.
+ */
+@Slf4j
+@Component
+public class JobStore {
+
+    private static final String JOB_FILE_SUFFIX = ".json";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public JobStore(final S3JobProperties jobProperties, final ObjectMapper objectMapper) throws IOException {
+        this.directory = jobProperties.getDirectory();
+        this.objectMapper = objectMapper;
+        Files.createDirectories(this.directory);
+    }
+
+    public void save(final JobDto job) {
+        Path file = this.directory.resolve(job.jobId().concat(JOB_FILE_SUFFIX));
+        try {
+            Path temporaryFile = Files.createTempFile(this.directory, job.jobId(), TEMPORARY_FILE_SUFFIX);
+            try {
+                this.objectMapper.writeValue(temporaryFile.toFile(), job);
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot save job '%s' to '%s'".formatted(job.jobId(), file), ex);
+        }
+    }
+
+    /**
+     * Files which can't be read are skipped, temporary files left by a crash are removed.
+     */
+    public List<JobDto> load() {
+        List<JobDto> jobs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.forEach(file -> {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMPORARY_FILE_SUFFIX)) {
+                    deleteQuietly(file);
+                } else if (fileName.endsWith(JOB_FILE_SUFFIX)) {
+                    try {
+                        jobs.add(this.objectMapper.readValue(file.toFile(), JobDto.class));
+                    } catch (IOException ex) {
+                        log.warn("Cannot read job file {}, it's skipped", file, ex);
+                    }
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list job files in '%s'".formatted(this.directory), ex);
+        }
+        return jobs;
+    }
+
+    public void delete(final String jobId) {
+        deleteQuietly(this.directory.resolve(jobId.concat(JOB_FILE_SUFFIX)));
+    }
+
+    private static void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Cannot delete job file {}", file, ex);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ua.reed.aws.s3.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exposes the state of an SDK HTTP client connection pool as gauges. The Apache client reports its pool
+ * statistics to the {@link MetricCollector} of every request, so the gauges show the state seen by the latest request.
+ */
+public class HttpConnectionPoolMetrics {
+
+    private final String clientName;
+    private final AtomicInteger maxConnections = new AtomicInteger();
+    private final AtomicInteger leasedConnections = new AtomicInteger();
+    private final AtomicInteger availableConnections = new AtomicInteger();
+    private final AtomicInteger pendingAcquires = new AtomicInteger();
+
+    public HttpConnectionPoolMetrics(final String clientName, final MeterRegistry meterRegistry) {
+        this.clientName = clientName;
+        register(meterRegistry, "s3.http.pool.max", this.maxConnections, "Maximum number of connections in the pool");
+        register(meterRegistry, "s3.http.pool.leased", this.leasedConnections, "Connections currently in use");
+        register(meterRegistry, "s3.http.pool.available", this.availableConnections, "Idle connections ready to be reused");
+        register(meterRegistry, "s3.http.pool.pending", this.pendingAcquires, "Requests waiting for a connection");
+    }
+
+    public MetricCollector newCollector() {
+        return MetricCollector.create(this.clientName);
+    }
+
+    public void record(final MetricCollector collector) {
+        record(collector.collect());
+    }
+
+    /**
+     * Takes the values from the whole tree, an SDK client reports them in the collection of the HTTP client
+     * nested under every attempt.
+     */
+    public void record(final MetricCollection metrics) {
+        update(metrics, HttpMetric.MAX_CONCURRENCY, this.maxConnections);
+        update(metrics, HttpMetric.LEASED_CONCURRENCY, this.leasedConnections);
+        update(metrics, HttpMetric.AVAILABLE_CONCURRENCY, this.availableConnections);
+        update(metrics, HttpMetric.PENDING_CONCURRENCY_ACQUIRES, this.pendingAcquires);
+        metrics.children().forEach(this::record);
+    }
+
+    private void register(final MeterRegistry meterRegistry, final String name, final AtomicInteger value, final String description) {
+        Gauge.builder(name, value, AtomicInteger::get)
+                .tag("client", this.clientName)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private static void update(final MetricCollection metrics, final SdkMetric<Integer> metric, final AtomicInteger target) {
+        metrics.metricValues(metric)
+                .stream()
+                .reduce((first, second) -> second)
+                .ifPresent(target::set);
+    }
+}
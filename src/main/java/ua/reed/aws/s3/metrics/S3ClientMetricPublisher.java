@@ -0,0 +1,61 @@
+package ua.reed.aws.s3.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+
+/**
+ * Publishes what only the SDK knows about a call: the duration of every attempt by HTTP status, the backoff
+ * between attempts, the number of retries and the state of the connection pool.
+ */
+public class S3ClientMetricPublisher implements MetricPublisher {
+
+    private final MeterRegistry meterRegistry;
+    private final HttpConnectionPoolMetrics connectionPoolMetrics;
+
+    public S3ClientMetricPublisher(final String clientName, final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.connectionPoolMetrics = new HttpConnectionPoolMetrics(clientName, meterRegistry);
+    }
+
+    @Override
+    public void publish(final MetricCollection apiCall) {
+        String operation = apiCall.metricValues(CoreMetric.OPERATION_NAME).stream().findFirst().orElse("unknown");
+        apiCall.metricValues(CoreMetric.RETRY_COUNT).stream().findFirst().ifPresent(retries -> {
+            if (retries > 0) {
+                Counter.builder("s3.client.retries")
+                        .description("Retried attempts of S3 API calls")
+                        .tag("operation", operation)
+                        .register(this.meterRegistry)
+                        .increment(retries);
+            }
+        });
+        apiCall.children().forEach(attempt -> {
+            String status = attempt.metricValues(HttpMetric.HTTP_STATUS_CODE).stream().findFirst().map(String::valueOf).orElse("none");
+            attempt.metricValues(CoreMetric.SERVICE_CALL_DURATION).forEach(duration -> timer("s3.client.attempts", operation, status).record(duration));
+            attempt.metricValues(CoreMetric.BACKOFF_DELAY_DURATION).stream()
+                    .filter(delay -> !delay.isZero())
+                    .forEach(delay -> timer("s3.client.backoff", operation, null).record(delay));
+        });
+        this.connectionPoolMetrics.record(apiCall);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private Timer timer(final String name, final String operation, final String status) {
+        Timer.Builder builder = Timer.builder(name)
+                .tag("operation", operation);
+        if (status != null) {
+            builder.tag("status", status);
+        }
+        return builder.register(this.meterRegistry);
+    }
+}
@@ -0,0 +1,130 @@
+package ua.reed.aws.s3.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.http.SdkHttpHeaders;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every S3 API call by operation, retries included, and counts the calls in flight, the failures by S3 error
+ * code and the bytes sent and received. The byte counters use the declared {@code Content-Length} of every attempt,
+ * a streamed download that is closed early is counted in full.
+ */
+public class S3ClientMetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START_TIME = new ExecutionAttribute<>("S3MetricsStartTime");
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public S3ClientMetricsInterceptor(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(final Context.BeforeExecution context, final ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START_TIME, System.nanoTime());
+        inFlight(operation(executionAttributes)).incrementAndGet();
+    }
+
+    @Override
+    public void beforeTransmission(final Context.BeforeTransmission context, final ExecutionAttributes executionAttributes) {
+        count("s3.client.bytes.sent", operation(executionAttributes), contentLength(context.httpRequest()));
+    }
+
+    @Override
+    public void afterTransmission(final Context.AfterTransmission context, final ExecutionAttributes executionAttributes) {
+        count("s3.client.bytes.received", operation(executionAttributes), contentLength(context.httpResponse()));
+    }
+
+    @Override
+    public void afterExecution(final Context.AfterExecution context, final ExecutionAttributes executionAttributes) {
+        complete(executionAttributes, "success");
+    }
+
+    @Override
+    public void onExecutionFailure(final Context.FailedExecution context, final ExecutionAttributes executionAttributes) {
+        Throwable exception = context.exception();
+        String errorCode = exception instanceof AwsServiceException serviceException && serviceException.awsErrorDetails() != null
+                ? serviceException.awsErrorDetails().errorCode()
+                : exception.getClass().getSimpleName();
+        this.counters.computeIfAbsent(
+                "s3.client.errors:" + operation(executionAttributes) + ':' + errorCode,
+                key -> Counter.builder("s3.client.errors")
+                        .description("Failed S3 API calls by error code")
+                        .tag("operation", operation(executionAttributes))
+                        .tag("error_code", errorCode == null ? "unknown" : errorCode)
+                        .register(this.meterRegistry)
+        ).increment();
+        complete(executionAttributes, "failure");
+    }
+
+    private void complete(final ExecutionAttributes executionAttributes, final String outcome) {
+        Long startTime = executionAttributes.getAttribute(START_TIME);
+        if (startTime == null) {
+            // failed before the call started, there is nothing to time
+            return;
+        }
+        String operation = operation(executionAttributes);
+        inFlight(operation).decrementAndGet();
+        this.timers.computeIfAbsent(
+                operation + ':' + outcome,
+                key -> Timer.builder("s3.client.requests")
+                        .description("Duration of S3 API calls including retries")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(this.meterRegistry)
+        ).record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    private AtomicInteger inFlight(final String operation) {
+        return this.inFlight.computeIfAbsent(operation, key -> {
+            AtomicInteger value = new AtomicInteger();
+            Gauge.builder("s3.client.requests.active", value, AtomicInteger::get)
+                    .description("S3 API calls in flight")
+                    .tag("operation", operation)
+                    .register(this.meterRegistry);
+            return value;
+        });
+    }
+
+    private void count(final String name, final String operation, final long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        this.counters.computeIfAbsent(
+                name + ':' + operation,
+                key -> Counter.builder(name)
+                        .baseUnit("bytes")
+                        .tag("operation", operation)
+                        .register(this.meterRegistry)
+        ).increment(bytes);
+    }
+
+    private static String operation(final ExecutionAttributes executionAttributes) {
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        return operation == null ? "unknown" : operation;
+    }
+
+    private static long contentLength(final SdkHttpHeaders headers) {
+        return headers.firstMatchingHeader(CONTENT_LENGTH)
+                .map(Long::parseLong)
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,61 @@
+package ua.reed.aws.s3.perf;
+
+import org.springframework.http.HttpStatus;
+import software.amazon.awssdk.core.exception.AbortedException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and failures added to every call of the {@link InMemoryS3Client}, so the service can be measured
+ * against a slow or failing S3 without depending on the real one.
+ */
+public class FaultInjector {
+
+    public static final FaultInjector NONE = new FaultInjector(Duration.ZERO, Duration.ZERO, 0, 0);
+
+    private final long latency;
+    private final long latencyJitter;
+    private final double errorRate;
+    private final double throttleRate;
+
+    /**
+     * @param latency       fixed latency of every call
+     * @param latencyJitter random latency of up to this duration added on top of the fixed one
+     * @param errorRate     share of calls failing with {@code 500 InternalError}, between 0 and 1
+     * @param throttleRate  share of calls failing with {@code 503 SlowDown}, between 0 and 1
+     */
+    public FaultInjector(final Duration latency, final Duration latencyJitter, final double errorRate, final double throttleRate) {
+        if (errorRate < 0 || throttleRate < 0 || errorRate + throttleRate > 1) {
+            throw new IllegalArgumentException("Error and throttle rates must be between 0 and 1 in total");
+        }
+        this.latency = latency.toNanos();
+        this.latencyJitter = latencyJitter.toNanos();
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+    }
+
+    /**
+     * Waits for the latency of the call and fails it at the configured rates, the way S3 answers before doing any work.
+     */
+    void inject(final String operationName) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = this.latency + (this.latencyJitter > 0 ? random.nextLong(this.latencyJitter + 1) : 0);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw AbortedException.builder().message("%s was interrupted".formatted(operationName)).cause(ex).build();
+            }
+        }
+        double roll = random.nextDouble();
+        if (roll < this.throttleRate) {
+            throw InMemoryS3Client.error(HttpStatus.SERVICE_UNAVAILABLE, "SlowDown", "Please reduce your request rate.");
+        }
+        if (roll < this.throttleRate + this.errorRate) {
+            throw InMemoryS3Client.error(HttpStatus.INTERNAL_SERVER_ERROR, "InternalError", "We encountered an internal error. Please try again.");
+        }
+    }
+}
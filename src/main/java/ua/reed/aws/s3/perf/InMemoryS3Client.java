@@ -0,0 +1,673 @@
+package ua.reed.aws.s3.perf;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import software.amazon.awssdk.awscore.DefaultAwsResponseMetadata;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.util.AwsHeader;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.Bucket;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
+import software.amazon.awssdk.services.s3.model.CopyObjectResult;
+import software.amazon.awssdk.services.s3.model.CopyPartResult;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.CreateBucketResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteBucketRequest;
+import software.amazon.awssdk.services.s3.model.DeleteBucketResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.DeletedObject;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectTaggingResponse;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListBucketsRequest;
+import software.amazon.awssdk.services.s3.model.ListBucketsResponse;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectVersionsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectVersionsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.ObjectVersion;
+import software.amazon.awssdk.services.s3.model.ObjectVersionStorageClass;
+import software.amazon.awssdk.services.s3.model.PutBucketVersioningRequest;
+import software.amazon.awssdk.services.s3.model.PutBucketVersioningResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectTaggingResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.S3Response;
+import software.amazon.awssdk.services.s3.model.StorageClass;
+import software.amazon.awssdk.services.s3.model.Tag;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for S3 that keeps buckets and objects on heap, for benchmarks and load tests that measure
+ * the service code rather than the network. Supports the calls the services make: buckets, put/get (ranged and
+ * conditional)/head/delete of objects, batch delete, tagging, paginated listing and multipart uploads.
+ * Objects are not versioned, every object is listed as its only version {@code null}, like in an unversioned bucket.
+ * <p>
+ * ETags are version counters, not MD5 digests, as hashing would be charged to the code under measurement.
+ * Every call first goes through the {@link FaultInjector}.
+ */
+public class InMemoryS3Client implements S3Client {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final int MAX_KEYS = 1000;
+    private static final String CONTENT_TYPE = "application/octet-stream";
+    private static final String NULL_VERSION = "null";
+
+    private final FaultInjector faultInjector;
+    private final Map<String, StoredBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public InMemoryS3Client() {
+        this(FaultInjector.NONE);
+    }
+
+    public InMemoryS3Client(final FaultInjector faultInjector) {
+        this.faultInjector = faultInjector;
+    }
+
+    /**
+     * Creates the bucket bypassing the fault injection, for setting up a test.
+     */
+    public void createBucket(final String bucketName) {
+        this.buckets.putIfAbsent(bucketName, new StoredBucket(Instant.now()));
+    }
+
+    /**
+     * Stores the object bypassing the fault injection, for setting up a test.
+     */
+    public void putObject(final String bucketName, final String objectKey, final byte[] content) {
+        store(bucketName, objectKey, content, CONTENT_TYPE);
+    }
+
+    @Override
+    public CreateBucketResponse createBucket(final CreateBucketRequest createBucketRequest) {
+        this.faultInjector.inject("CreateBucket");
+        if (this.buckets.putIfAbsent(createBucketRequest.bucket(), new StoredBucket(Instant.now())) != null) {
+            throw error(HttpStatus.CONFLICT, "BucketAlreadyOwnedByYou", "Your previous request to create the named bucket succeeded and you already own it.");
+        }
+        return respond(CreateBucketResponse.builder().location("/" + createBucketRequest.bucket()), HttpStatus.OK);
+    }
+
+    @Override
+    public DeleteBucketResponse deleteBucket(final DeleteBucketRequest deleteBucketRequest) {
+        this.faultInjector.inject("DeleteBucket");
+        StoredBucket bucket = bucket(deleteBucketRequest.bucket());
+        if (!bucket.objects().isEmpty()) {
+            throw error(HttpStatus.CONFLICT, "BucketNotEmpty", "The bucket you tried to delete is not empty");
+        }
+        this.buckets.remove(deleteBucketRequest.bucket(), bucket);
+        return respond(DeleteBucketResponse.builder(), HttpStatus.NO_CONTENT);
+    }
+
+    @Override
+    public HeadBucketResponse headBucket(final HeadBucketRequest headBucketRequest) {
+        this.faultInjector.inject("HeadBucket");
+        bucket(headBucketRequest.bucket());
+        return respond(HeadBucketResponse.builder().bucketRegion("in-memory"), HttpStatus.OK);
+    }
+
+    @Override
+    public ListBucketsResponse listBuckets(final ListBucketsRequest listBucketsRequest) {
+        this.faultInjector.inject("ListBuckets");
+        List<Bucket> buckets = this.buckets.entrySet()
+                .stream()
+                .map(entry -> Bucket.builder().name(entry.getKey()).creationDate(entry.getValue().creationDate()).build())
+                .toList();
+        return respond(ListBucketsResponse.builder().buckets(buckets), HttpStatus.OK);
+    }
+
+    @Override
+    public PutBucketVersioningResponse putBucketVersioning(final PutBucketVersioningRequest putBucketVersioningRequest) {
+        this.faultInjector.inject("PutBucketVersioning");
+        bucket(putBucketVersioningRequest.bucket());
+        return respond(PutBucketVersioningResponse.builder(), HttpStatus.OK);
+    }
+
+    @Override
+    public PutObjectResponse putObject(final PutObjectRequest putObjectRequest, final RequestBody requestBody) {
+        this.faultInjector.inject("PutObject");
+        StoredObject object = store(
+                putObjectRequest.bucket(),
+                putObjectRequest.key(),
+                readAll(requestBody),
+                putObjectRequest.contentType() == null ? CONTENT_TYPE : putObjectRequest.contentType()
+        );
+        return respond(PutObjectResponse.builder().eTag(object.eTag()), HttpStatus.OK);
+    }
+
+    @Override
+    public <ReturnT> ReturnT getObject(final GetObjectRequest getObjectRequest,
+                                       final ResponseTransformer<GetObjectResponse, ReturnT> responseTransformer) {
+        this.faultInjector.inject("GetObject");
+        StoredObject object = find(getObjectRequest.bucket(), getObjectRequest.key());
+        if (getObjectRequest.ifMatch() != null && !getObjectRequest.ifMatch().equals(object.eTag())) {
+            throw error(HttpStatus.PRECONDITION_FAILED, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold");
+        }
+        if (S3Utils.isNotModified(object.eTag(), object.lastModified(), getObjectRequest.ifNoneMatch(), getObjectRequest.ifModifiedSince())) {
+            throw notModified(object.eTag());
+        }
+        int length = object.content().length;
+        int start = 0;
+        int end = length - 1;
+        String contentRange = null;
+        Matcher range = getObjectRequest.range() == null ? null : RANGE.matcher(getObjectRequest.range());
+        // like S3, a range that can't be parsed is ignored and the whole object is returned
+        if (range != null && range.matches() && !(range.group(1).isEmpty() && range.group(2).isEmpty())) {
+            if (range.group(1).isEmpty()) {
+                start = (int) Math.max(0, length - Long.parseLong(range.group(2)));
+            } else {
+                start = (int) Math.min(Long.parseLong(range.group(1)), length);
+                end = range.group(2).isEmpty() ? end : (int) Math.min(Long.parseLong(range.group(2)), end);
+            }
+            if (start >= length || start > end) {
+                throw error(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "InvalidRange", "The requested range is not satisfiable");
+            }
+            contentRange = "bytes %d-%d/%d".formatted(start, end, length);
+        }
+        GetObjectResponse response = respond(
+                GetObjectResponse.builder()
+                        .contentLength((long) end - start + 1)
+                        .contentRange(contentRange)
+                        .contentType(object.contentType())
+                        .eTag(object.eTag())
+                        .lastModified(object.lastModified())
+                        .tagCount(object.tags().size()),
+                contentRange == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT
+        );
+        InputStream content = new ByteArrayInputStream(object.content(), start, end - start + 1);
+        try {
+            return responseTransformer.transform(response, AbortableInputStream.create(content));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public HeadObjectResponse headObject(final HeadObjectRequest headObjectRequest) {
+        this.faultInjector.inject("HeadObject");
+        StoredObject object = find(headObjectRequest.bucket(), headObjectRequest.key());
+        return respond(
+                HeadObjectResponse.builder()
+                        .contentLength((long) object.content().length)
+                        .contentType(object.contentType())
+                        .eTag(object.eTag())
+                        .lastModified(object.lastModified()),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public CopyObjectResponse copyObject(final CopyObjectRequest copyObjectRequest) {
+        this.faultInjector.inject("CopyObject");
+        StoredObject source = copySource(copyObjectRequest.sourceBucket(), copyObjectRequest.sourceKey(), copyObjectRequest.copySourceIfMatch());
+        StoredObject object = new StoredObject(source.content(), source.contentType(), "\"" + this.versions.incrementAndGet() + "\"", Instant.now(), source.tags());
+        bucket(copyObjectRequest.destinationBucket()).objects().put(copyObjectRequest.destinationKey(), object);
+        return respond(
+                CopyObjectResponse.builder()
+                        .copyObjectResult(CopyObjectResult.builder().eTag(object.eTag()).lastModified(object.lastModified()).build()),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(final DeleteObjectRequest deleteObjectRequest) {
+        this.faultInjector.inject("DeleteObject");
+        bucket(deleteObjectRequest.bucket()).objects().remove(deleteObjectRequest.key());
+        return respond(DeleteObjectResponse.builder(), HttpStatus.NO_CONTENT);
+    }
+
+    @Override
+    public DeleteObjectsResponse deleteObjects(final DeleteObjectsRequest deleteObjectsRequest) {
+        this.faultInjector.inject("DeleteObjects");
+        NavigableMap<String, StoredObject> objects = bucket(deleteObjectsRequest.bucket()).objects();
+        List<DeletedObject> deleted = new ArrayList<>();
+        for (ObjectIdentifier identifier : deleteObjectsRequest.delete().objects()) {
+            objects.remove(identifier.key());
+            deleted.add(DeletedObject.builder().key(identifier.key()).versionId(identifier.versionId()).build());
+        }
+        boolean quiet = Boolean.TRUE.equals(deleteObjectsRequest.delete().quiet());
+        return respond(DeleteObjectsResponse.builder().deleted(quiet ? List.of() : deleted), HttpStatus.OK);
+    }
+
+    @Override
+    public GetObjectTaggingResponse getObjectTagging(final GetObjectTaggingRequest getObjectTaggingRequest) {
+        this.faultInjector.inject("GetObjectTagging");
+        StoredObject object = find(getObjectTaggingRequest.bucket(), getObjectTaggingRequest.key());
+        return respond(GetObjectTaggingResponse.builder().tagSet(object.tags()), HttpStatus.OK);
+    }
+
+    @Override
+    public PutObjectTaggingResponse putObjectTagging(final PutObjectTaggingRequest putObjectTaggingRequest) {
+        this.faultInjector.inject("PutObjectTagging");
+        List<Tag> tags = List.copyOf(putObjectTaggingRequest.tagging().tagSet());
+        StoredObject tagged = bucket(putObjectTaggingRequest.bucket())
+                .objects()
+                .computeIfPresent(putObjectTaggingRequest.key(), (key, object) -> object.withTags(tags));
+        if (tagged == null) {
+            throw noSuchKey();
+        }
+        return respond(PutObjectTaggingResponse.builder(), HttpStatus.OK);
+    }
+
+    /**
+     * Continuation tokens are the last key of the previous page. The keys of a common prefix are contiguous,
+     * so a page always ends after the last key of its last common prefix.
+     */
+    @Override
+    public ListObjectsV2Response listObjectsV2(final ListObjectsV2Request listObjectsV2Request) {
+        this.faultInjector.inject("ListObjectsV2");
+        NavigableMap<String, StoredObject> objects = bucket(listObjectsV2Request.bucket()).objects();
+        String prefix = listObjectsV2Request.prefix() == null ? "" : listObjectsV2Request.prefix();
+        String delimiter = listObjectsV2Request.delimiter() == null || listObjectsV2Request.delimiter().isEmpty()
+                ? null
+                : listObjectsV2Request.delimiter();
+        int maxKeys = listObjectsV2Request.maxKeys() == null ? MAX_KEYS : Math.min(listObjectsV2Request.maxKeys(), MAX_KEYS);
+        String after = listObjectsV2Request.continuationToken() != null
+                ? listObjectsV2Request.continuationToken()
+                : listObjectsV2Request.startAfter();
+        NavigableMap<String, StoredObject> candidates = after == null || after.compareTo(prefix) < 0
+                ? objects.tailMap(prefix, true)
+                : objects.tailMap(after, false);
+
+        List<S3Object> contents = new ArrayList<>();
+        List<CommonPrefix> commonPrefixes = new ArrayList<>();
+        String lastCommonPrefix = null;
+        String lastKey = null;
+        boolean truncated = false;
+        for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix)) {
+                break;
+            }
+            int delimiterIndex = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+            String commonPrefix = delimiterIndex < 0 ? null : key.substring(0, delimiterIndex + delimiter.length());
+            if (commonPrefix != null && commonPrefix.equals(lastCommonPrefix)) {
+                lastKey = key;
+                continue;
+            }
+            if (contents.size() + commonPrefixes.size() == maxKeys) {
+                truncated = true;
+                break;
+            }
+            if (commonPrefix != null) {
+                commonPrefixes.add(CommonPrefix.builder().prefix(commonPrefix).build());
+                lastCommonPrefix = commonPrefix;
+            } else {
+                StoredObject object = entry.getValue();
+                contents.add(
+                        S3Object.builder()
+                                .key(key)
+                                .size((long) object.content().length)
+                                .eTag(object.eTag())
+                                .lastModified(object.lastModified())
+                                .storageClass(StorageClass.STANDARD.toString())
+                                .build()
+                );
+            }
+            lastKey = key;
+        }
+        return respond(
+                ListObjectsV2Response.builder()
+                        .name(listObjectsV2Request.bucket())
+                        .prefix(listObjectsV2Request.prefix())
+                        .delimiter(listObjectsV2Request.delimiter())
+                        .startAfter(listObjectsV2Request.startAfter())
+                        .maxKeys(maxKeys)
+                        .keyCount(contents.size() + commonPrefixes.size())
+                        .contents(contents)
+                        .commonPrefixes(commonPrefixes)
+                        .continuationToken(listObjectsV2Request.continuationToken())
+                        .isTruncated(truncated)
+                        .nextContinuationToken(truncated ? lastKey : null),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public ListObjectVersionsResponse listObjectVersions(final ListObjectVersionsRequest listObjectVersionsRequest) {
+        this.faultInjector.inject("ListObjectVersions");
+        NavigableMap<String, StoredObject> objects = bucket(listObjectVersionsRequest.bucket()).objects();
+        String prefix = listObjectVersionsRequest.prefix() == null ? "" : listObjectVersionsRequest.prefix();
+        int maxKeys = listObjectVersionsRequest.maxKeys() == null ? MAX_KEYS : Math.min(listObjectVersionsRequest.maxKeys(), MAX_KEYS);
+        String after = listObjectVersionsRequest.keyMarker();
+        NavigableMap<String, StoredObject> candidates = after == null || after.compareTo(prefix) < 0
+                ? objects.tailMap(prefix, true)
+                : objects.tailMap(after, false);
+
+        List<ObjectVersion> versions = new ArrayList<>();
+        boolean truncated = false;
+        for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (versions.size() == maxKeys) {
+                truncated = true;
+                break;
+            }
+            StoredObject object = entry.getValue();
+            versions.add(
+                    ObjectVersion.builder()
+                            .key(entry.getKey())
+                            .versionId(NULL_VERSION)
+                            .isLatest(true)
+                            .size((long) object.content().length)
+                            .eTag(object.eTag())
+                            .lastModified(object.lastModified())
+                            .storageClass(ObjectVersionStorageClass.STANDARD)
+                            .build()
+            );
+        }
+        return respond(
+                ListObjectVersionsResponse.builder()
+                        .name(listObjectVersionsRequest.bucket())
+                        .prefix(listObjectVersionsRequest.prefix())
+                        .keyMarker(listObjectVersionsRequest.keyMarker())
+                        .versionIdMarker(listObjectVersionsRequest.versionIdMarker())
+                        .maxKeys(maxKeys)
+                        .versions(versions)
+                        .deleteMarkers(List.of())
+                        .isTruncated(truncated)
+                        .nextKeyMarker(truncated ? versions.get(versions.size() - 1).key() : null)
+                        .nextVersionIdMarker(truncated ? NULL_VERSION : null),
+                HttpStatus.OK
+        );
+    }
+
+    /**
+     * Uploads are listed by key and upload id, the markers are the last ones of the previous page.
+     */
+    @Override
+    public ListMultipartUploadsResponse listMultipartUploads(final ListMultipartUploadsRequest listMultipartUploadsRequest) {
+        this.faultInjector.inject("ListMultipartUploads");
+        bucket(listMultipartUploadsRequest.bucket());
+        String prefix = listMultipartUploadsRequest.prefix() == null ? "" : listMultipartUploadsRequest.prefix();
+        int maxUploads = listMultipartUploadsRequest.maxUploads() == null
+                ? MAX_KEYS
+                : Math.min(listMultipartUploadsRequest.maxUploads(), MAX_KEYS);
+        String keyMarker = listMultipartUploadsRequest.keyMarker() == null ? "" : listMultipartUploadsRequest.keyMarker();
+        String uploadIdMarker = listMultipartUploadsRequest.uploadIdMarker() == null ? "" : listMultipartUploadsRequest.uploadIdMarker();
+        List<MultipartUpload> uploads = this.uploads.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue().bucketName().equals(listMultipartUploadsRequest.bucket()))
+                .filter(entry -> entry.getValue().objectKey().startsWith(prefix))
+                .filter(entry -> {
+                    int byKey = entry.getValue().objectKey().compareTo(keyMarker);
+                    return byKey > 0 || byKey == 0 && entry.getKey().compareTo(uploadIdMarker) > 0;
+                })
+                .map(entry -> MultipartUpload.builder()
+                        .key(entry.getValue().objectKey())
+                        .uploadId(entry.getKey())
+                        .initiated(entry.getValue().initiated())
+                        .storageClass(StorageClass.STANDARD)
+                        .build())
+                .sorted(Comparator.comparing(MultipartUpload::key).thenComparing(MultipartUpload::uploadId))
+                .limit(maxUploads + 1L)
+                .toList();
+        boolean truncated = uploads.size() > maxUploads;
+        List<MultipartUpload> page = truncated ? uploads.subList(0, maxUploads) : uploads;
+        return respond(
+                ListMultipartUploadsResponse.builder()
+                        .bucket(listMultipartUploadsRequest.bucket())
+                        .prefix(listMultipartUploadsRequest.prefix())
+                        .keyMarker(listMultipartUploadsRequest.keyMarker())
+                        .uploadIdMarker(listMultipartUploadsRequest.uploadIdMarker())
+                        .maxUploads(maxUploads)
+                        .uploads(page)
+                        .isTruncated(truncated)
+                        .nextKeyMarker(truncated ? page.get(page.size() - 1).key() : null)
+                        .nextUploadIdMarker(truncated ? page.get(page.size() - 1).uploadId() : null),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(final CreateMultipartUploadRequest createMultipartUploadRequest) {
+        this.faultInjector.inject("CreateMultipartUpload");
+        bucket(createMultipartUploadRequest.bucket());
+        String uploadId = UUID.randomUUID().toString();
+        String contentType = createMultipartUploadRequest.contentType() == null ? CONTENT_TYPE : createMultipartUploadRequest.contentType();
+        this.uploads.put(
+                uploadId,
+                new Upload(createMultipartUploadRequest.bucket(), createMultipartUploadRequest.key(), contentType, Instant.now(), new ConcurrentHashMap<>())
+        );
+        return respond(
+                CreateMultipartUploadResponse.builder()
+                        .bucket(createMultipartUploadRequest.bucket())
+                        .key(createMultipartUploadRequest.key())
+                        .uploadId(uploadId),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(final UploadPartRequest uploadPartRequest, final RequestBody requestBody) {
+        this.faultInjector.inject("UploadPart");
+        upload(uploadPartRequest.uploadId()).parts().put(uploadPartRequest.partNumber(), readAll(requestBody));
+        return respond(UploadPartResponse.builder().eTag("\"part-" + uploadPartRequest.partNumber() + "\""), HttpStatus.OK);
+    }
+
+    @Override
+    public UploadPartCopyResponse uploadPartCopy(final UploadPartCopyRequest uploadPartCopyRequest) {
+        this.faultInjector.inject("UploadPartCopy");
+        StoredObject source = copySource(uploadPartCopyRequest.sourceBucket(), uploadPartCopyRequest.sourceKey(), uploadPartCopyRequest.copySourceIfMatch());
+        byte[] content = source.content();
+        if (uploadPartCopyRequest.copySourceRange() != null) {
+            // unlike GetObject, the range of a part copy must be complete and within the source
+            Matcher range = RANGE.matcher(uploadPartCopyRequest.copySourceRange());
+            if (!range.matches() || range.group(1).isEmpty() || range.group(2).isEmpty()) {
+                throw error(HttpStatus.BAD_REQUEST, "InvalidArgument", "The x-amz-copy-source-range value must be of the form bytes=first-last");
+            }
+            long start = Long.parseLong(range.group(1));
+            long end = Long.parseLong(range.group(2));
+            if (start > end || end >= content.length) {
+                throw error(HttpStatus.BAD_REQUEST, "InvalidRange", "The requested range is not satisfiable");
+            }
+            content = Arrays.copyOfRange(content, (int) start, (int) end + 1);
+        }
+        upload(uploadPartCopyRequest.uploadId()).parts().put(uploadPartCopyRequest.partNumber(), content);
+        return respond(
+                UploadPartCopyResponse.builder()
+                        .copyPartResult(CopyPartResult.builder().eTag("\"part-" + uploadPartCopyRequest.partNumber() + "\"").build()),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(final CompleteMultipartUploadRequest completeMultipartUploadRequest) {
+        this.faultInjector.inject("CompleteMultipartUpload");
+        Upload upload = upload(completeMultipartUploadRequest.uploadId());
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (CompletedPart part : completeMultipartUploadRequest.multipartUpload().parts()) {
+            byte[] partContent = upload.parts().get(part.partNumber());
+            if (partContent == null) {
+                throw error(HttpStatus.BAD_REQUEST, "InvalidPart", "Part %d has not been uploaded".formatted(part.partNumber()));
+            }
+            content.writeBytes(partContent);
+        }
+        this.uploads.remove(completeMultipartUploadRequest.uploadId());
+        StoredObject object = store(completeMultipartUploadRequest.bucket(), completeMultipartUploadRequest.key(), content.toByteArray(), upload.contentType());
+        return respond(
+                CompleteMultipartUploadResponse.builder()
+                        .bucket(completeMultipartUploadRequest.bucket())
+                        .key(completeMultipartUploadRequest.key())
+                        .eTag(object.eTag()),
+                HttpStatus.OK
+        );
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(final AbortMultipartUploadRequest abortMultipartUploadRequest) {
+        this.faultInjector.inject("AbortMultipartUpload");
+        this.uploads.remove(abortMultipartUploadRequest.uploadId());
+        return respond(AbortMultipartUploadResponse.builder(), HttpStatus.NO_CONTENT);
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+        this.buckets.clear();
+        this.uploads.clear();
+    }
+
+    static S3Exception error(final HttpStatus status, final String errorCode, final String message) {
+        return error(status, errorCode, message, SdkHttpResponse.builder().statusCode(status.value()).build());
+    }
+
+    private static S3Exception error(final HttpStatus status, final String errorCode, final String message, final SdkHttpResponse httpResponse) {
+        return (S3Exception) S3Exception.builder()
+                .statusCode(status.value())
+                .message(message)
+                .awsErrorDetails(
+                        AwsErrorDetails.builder()
+                                .errorCode(errorCode)
+                                .errorMessage(message)
+                                .serviceName("S3")
+                                .sdkHttpResponse(httpResponse)
+                                .build()
+                )
+                .build();
+    }
+
+    private static S3Exception notModified(final String eTag) {
+        return error(
+                HttpStatus.NOT_MODIFIED,
+                "NotModified",
+                "Not Modified",
+                SdkHttpResponse.builder().statusCode(HttpStatus.NOT_MODIFIED.value()).putHeader(HttpHeaders.ETAG, eTag).build()
+        );
+    }
+
+    private static S3Exception noSuchKey() {
+        return error(HttpStatus.NOT_FOUND, "NoSuchKey", "The specified key does not exist.");
+    }
+
+    /**
+     * Responses carry the request id and the HTTP status, like the ones unmarshalled by the SDK.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends S3Response> T respond(final S3Response.Builder builder, final HttpStatus status) {
+        return (T) builder
+                .responseMetadata(DefaultAwsResponseMetadata.create(Map.of(AwsHeader.AWS_REQUEST_ID, UUID.randomUUID().toString())))
+                .sdkHttpResponse(SdkHttpResponse.builder().statusCode(status.value()).build())
+                .build();
+    }
+
+    private StoredObject store(final String bucketName, final String objectKey, final byte[] content, final String contentType) {
+        StoredObject object = new StoredObject(content, contentType, "\"" + this.versions.incrementAndGet() + "\"", Instant.now(), List.of());
+        bucket(bucketName).objects().put(objectKey, object);
+        return object;
+    }
+
+    private StoredObject find(final String bucketName, final String objectKey) {
+        StoredObject object = bucket(bucketName).objects().get(objectKey);
+        if (object == null) {
+            throw noSuchKey();
+        }
+        return object;
+    }
+
+    private StoredObject copySource(final String bucketName, final String objectKey, final String ifMatch) {
+        StoredObject object = find(bucketName, objectKey);
+        if (ifMatch != null && !ifMatch.equals(object.eTag())) {
+            throw error(HttpStatus.PRECONDITION_FAILED, "PreconditionFailed", "At least one of the pre-conditions you specified did not hold");
+        }
+        return object;
+    }
+
+    private StoredBucket bucket(final String bucketName) {
+        StoredBucket bucket = this.buckets.get(bucketName);
+        if (bucket == null) {
+            throw error(HttpStatus.NOT_FOUND, "NoSuchBucket", "The specified bucket does not exist");
+        }
+        return bucket;
+    }
+
+    private Upload upload(final String uploadId) {
+        Upload upload = this.uploads.get(uploadId);
+        if (upload == null) {
+            throw error(HttpStatus.NOT_FOUND, "NoSuchUpload", "The specified multipart upload does not exist.");
+        }
+        return upload;
+    }
+
+    private static byte[] readAll(final RequestBody requestBody) {
+        try (InputStream inputStream = requestBody.contentStreamProvider().newStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record StoredBucket(Instant creationDate, NavigableMap<String, StoredObject> objects) {
+
+        private StoredBucket(final Instant creationDate) {
+            this(creationDate, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private record StoredObject(byte[] content, String contentType, String eTag, Instant lastModified, List<Tag> tags) {
+
+        private StoredObject withTags(final List<Tag> tags) {
+            return new StoredObject(this.content, this.contentType, this.eTag, this.lastModified, tags);
+        }
+    }
+
+    private record Upload(String bucketName, String objectKey, String contentType, Instant initiated, Map<Integer, byte[]> parts) {
+    }
+}
@@ -0,0 +1,107 @@
+package ua.reed.aws.s3.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket whose rate follows the feedback of the server (AIMD): every successful request raises the rate so that
+ * it grows by {@code additiveIncrease} permits per second while requests succeed, a throttled request cuts the rate
+ * by {@code decreaseFactor}. Throttling responses of requests that were already in flight when the rate was cut
+ * don't cut it again, the rate is decreased at most once per {@code decreaseCooldown}.
+ */
+public class AdaptiveRateLimiter {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double additiveIncrease;
+    private final double decreaseFactor;
+    private final long decreaseCooldownNanos;
+    private final double burstSeconds;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastDecrease;
+
+    public AdaptiveRateLimiter(final double initialRate,
+                               final double minRate,
+                               final double maxRate,
+                               final double additiveIncrease,
+                               final double decreaseFactor,
+                               final Duration decreaseCooldown,
+                               final Duration burst) {
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.additiveIncrease = additiveIncrease;
+        this.decreaseFactor = decreaseFactor;
+        this.decreaseCooldownNanos = decreaseCooldown.toNanos();
+        this.burstSeconds = burst.toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        this.rate = Math.max(minRate, Math.min(maxRate, initialRate));
+        this.tokens = capacity();
+        this.lastRefill = System.nanoTime();
+        this.lastDecrease = this.lastRefill - this.decreaseCooldownNanos;
+    }
+
+    /**
+     * Blocks until a permit is available.
+     *
+     * @return time spent waiting in nanoseconds
+     */
+    public long acquire() throws InterruptedException {
+        long waited = 0;
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            waited += waitNanos;
+        }
+        return waited;
+    }
+
+    public synchronized void onSuccess() {
+        refill(System.nanoTime());
+        this.rate = Math.min(this.maxRate, this.rate + this.additiveIncrease / this.rate);
+    }
+
+    /**
+     * @return whether the rate was decreased
+     */
+    public synchronized boolean onThrottle() {
+        long now = System.nanoTime();
+        if (now - this.lastDecrease < this.decreaseCooldownNanos) {
+            return false;
+        }
+        refill(now);
+        this.rate = Math.max(this.minRate, this.rate * this.decreaseFactor);
+        this.tokens = Math.min(this.tokens, capacity());
+        this.lastDecrease = now;
+        return true;
+    }
+
+    public synchronized double getRate() {
+        return this.rate;
+    }
+
+    /**
+     * Takes a permit if there is one.
+     *
+     * @return zero when a permit was taken, otherwise the time until the next one is available
+     */
+    private synchronized long tryAcquire() {
+        refill(System.nanoTime());
+        if (this.tokens >= 1) {
+            this.tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) ((1 - this.tokens) / this.rate * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void refill(final long now) {
+        double elapsedSeconds = (now - this.lastRefill) / (double) TimeUnit.SECONDS.toNanos(1);
+        this.tokens = Math.min(capacity(), this.tokens + elapsedSeconds * this.rate);
+        this.lastRefill = now;
+    }
+
+    private double capacity() {
+        return Math.max(1, this.rate * this.burstSeconds);
+    }
+}
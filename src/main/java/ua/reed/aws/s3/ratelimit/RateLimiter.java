@@ -0,0 +1,36 @@
+package ua.reed.aws.s3.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces permits evenly at a fixed rate. A caller blocks until its slot comes, so callers are served in arrival order
+ * and there are no bursts. A non-positive rate disables the limit.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeSlot;
+
+    public RateLimiter(final double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0;
+        this.nextFreeSlot = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        if (this.intervalNanos == 0) {
+            return;
+        }
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        // an idle limiter doesn't accumulate permits, the next caller is simply not delayed
+        long slot = Math.max(this.nextFreeSlot, now);
+        this.nextFreeSlot = slot + this.intervalNanos;
+        return slot - now;
+    }
+}
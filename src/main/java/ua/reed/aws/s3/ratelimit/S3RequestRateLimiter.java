@@ -0,0 +1,124 @@
+package ua.reed.aws.s3.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ua.reed.aws.s3.config.S3ClientProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an {@link AdaptiveRateLimiter} per bucket and key prefix. The current rate of every prefix is exported
+ * as the {@code s3.throttling.rate} gauge, along with the throttled responses and the time requests waited for a permit.
+ */
+@Slf4j
+@Component
+public class S3RequestRateLimiter {
+
+    private static final char DELIMITER = '/';
+
+    private final S3ClientProperties.Throttling properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Partition, Limiter> limiters;
+    private final Timer waitTimer;
+
+    public S3RequestRateLimiter(final S3ClientProperties clientProperties, final MeterRegistry meterRegistry) {
+        this.properties = clientProperties.getThrottling();
+        this.meterRegistry = meterRegistry;
+        this.limiters = Caffeine.newBuilder()
+                .maximumSize(this.properties.getMaximumPrefixes())
+                .expireAfterAccess(this.properties.getPrefixIdleTime())
+                // runs inside the eviction, so a limiter created right after it for the same prefix registers its own
+                // meters instead of getting the ones about to be removed (a removal listener would run asynchronously)
+                .evictionListener((Partition partition, Limiter limiter, RemovalCause cause) -> {
+                    if (limiter != null) {
+                        meterRegistry.remove(limiter.rateGauge());
+                        meterRegistry.remove(limiter.throttledCounter());
+                    }
+                })
+                .build();
+        this.waitTimer = Timer.builder("s3.throttling.wait")
+                .description("Time requests waited for a permit of the client-side rate limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until the partition of the given object may send another request.
+     *
+     * @param objectKey key or prefix of the request, {@code null} for bucket level requests
+     */
+    public void acquire(final String bucketName, final String objectKey) throws InterruptedException {
+        AdaptiveRateLimiter limiter = this.limiters.get(partitionOf(bucketName, objectKey), this::createLimiter).limiter();
+        this.waitTimer.record(limiter.acquire(), TimeUnit.NANOSECONDS);
+    }
+
+    public void onSuccess(final String bucketName, final String objectKey) {
+        Limiter limiter = this.limiters.getIfPresent(partitionOf(bucketName, objectKey));
+        if (limiter != null) {
+            limiter.limiter().onSuccess();
+        }
+    }
+
+    public void onThrottle(final String bucketName, final String objectKey) {
+        Partition partition = partitionOf(bucketName, objectKey);
+        Limiter limiter = this.limiters.getIfPresent(partition);
+        if (limiter == null) {
+            return;
+        }
+        limiter.throttledCounter().increment();
+        if (limiter.limiter().onThrottle()) {
+            log.info("S3 throttled bucket={}, prefix={}, request rate lowered to {}/s", partition.bucketName(), partition.prefix(), Math.round(limiter.limiter().getRate()));
+        }
+    }
+
+    private Partition partitionOf(final String bucketName, final String objectKey) {
+        if (objectKey == null || this.properties.getPrefixDepth() == 0) {
+            return new Partition(bucketName, "");
+        }
+        int end = -1;
+        for (int segment = 0; segment < this.properties.getPrefixDepth(); segment++) {
+            int next = objectKey.indexOf(DELIMITER, end + 1);
+            if (next < 0) {
+                // a key without that many segments belongs to the partition of its parent "directory"
+                return new Partition(bucketName, end < 0 ? "" : objectKey.substring(0, end + 1));
+            }
+            end = next;
+        }
+        return new Partition(bucketName, objectKey.substring(0, end + 1));
+    }
+
+    private Limiter createLimiter(final Partition partition) {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(
+                this.properties.getInitialRate(),
+                this.properties.getMinRate(),
+                this.properties.getMaxRate(),
+                this.properties.getAdditiveIncrease(),
+                this.properties.getDecreaseFactor(),
+                this.properties.getDecreaseCooldown(),
+                this.properties.getBurst()
+        );
+        Gauge rateGauge = Gauge.builder("s3.throttling.rate", limiter, AdaptiveRateLimiter::getRate)
+                .description("Current client-side request rate limit per second")
+                .tag("bucket", partition.bucketName())
+                .tag("prefix", partition.prefix())
+                .register(this.meterRegistry);
+        Counter throttledCounter = Counter.builder("s3.throttling.throttled")
+                .description("Requests throttled by S3")
+                .tag("bucket", partition.bucketName())
+                .tag("prefix", partition.prefix())
+                .register(this.meterRegistry);
+        return new Limiter(limiter, rateGauge, throttledCounter);
+    }
+
+    private record Partition(String bucketName, String prefix) {
+    }
+
+    private record Limiter(AdaptiveRateLimiter limiter, Gauge rateGauge, Counter throttledCounter) {
+    }
+}
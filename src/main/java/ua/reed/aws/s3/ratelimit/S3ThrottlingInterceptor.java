@@ -0,0 +1,55 @@
+package ua.reed.aws.s3.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.http.HttpStatusCode;
+
+/**
+ * Applies {@link S3RequestRateLimiter} to every attempt of a request, retries included, and feeds the response
+ * status back to it. Registered on the synchronous client, so a request waits for a permit on the calling thread.
+ */
+@RequiredArgsConstructor
+public class S3ThrottlingInterceptor implements ExecutionInterceptor {
+
+    private final S3RequestRateLimiter rateLimiter;
+
+    @Override
+    public void beforeTransmission(final Context.BeforeTransmission context, final ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        try {
+            this.rateLimiter.acquire(bucketName(request), objectKey(request));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw AbortedException.builder().message("Interrupted while waiting for the S3 request rate limit").cause(ex).build();
+        }
+    }
+
+    @Override
+    public void afterTransmission(final Context.AfterTransmission context, final ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        int statusCode = context.httpResponse().statusCode();
+        // S3 answers 503 SlowDown, 429 is what other throttling services and S3 compatible storages use
+        if (statusCode == HttpStatusCode.SERVICE_UNAVAILABLE || statusCode == HttpStatusCode.THROTTLING) {
+            this.rateLimiter.onThrottle(bucketName(request), objectKey(request));
+        } else {
+            this.rateLimiter.onSuccess(bucketName(request), objectKey(request));
+        }
+    }
+
+    private static String bucketName(final SdkRequest request) {
+        return request.getValueForField("Bucket", String.class).orElse("");
+    }
+
+    /**
+     * Listings have no key, their prefix decides which partition of the bucket they hit.
+     */
+    private static String objectKey(final SdkRequest request) {
+        return request.getValueForField("Key", String.class)
+                .or(() -> request.getValueForField("Prefix", String.class))
+                .orElse(null);
+    }
+}
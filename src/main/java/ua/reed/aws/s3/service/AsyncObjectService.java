@@ -0,0 +1,23 @@
+package ua.reed.aws.s3.service;
+
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import ua.reed.aws.s3.dto.AddTagsRequestDto;
+import ua.reed.aws.s3.dto.ObjectInfoDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncObjectService {
+
+    CompletableFuture<Void> createObject(final String bucketName, final String objectKey, final MultipartFile multipartFile);
+
+    CompletableFuture<Void> addTags(final AddTagsRequestDto request);
+
+    CompletableFuture<ResponseInputStream<GetObjectResponse>> getObject(final String bucketName, final String objectKey);
+
+    CompletableFuture<Void> deleteObject(final String bucketName, final String objectKey);
+
+    CompletableFuture<ObjectInfoDto> getObjectInfo(final String bucketName, final String objectKey);
+
+}
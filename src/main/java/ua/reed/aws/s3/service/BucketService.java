@@ -4,6 +4,9 @@ import software.amazon.awssdk.services.s3.model.BucketVersioningStatus;
 import ua.reed.aws.s3.dto.CreateBucketResponseDto;
 import ua.reed.aws.s3.dto.GetBucketResponseDto;
 import ua.reed.aws.s3.dto.BucketInfoDto;
+import ua.reed.aws.s3.dto.BucketDeletionDto;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.service.model.BulkOperationOptions;
 
 public interface BucketService {
 
@@ -15,6 +18,10 @@ public interface BucketService {
 
     void deleteBucket(final String bucketName);
 
+    BucketDeletionDto forceDeleteBucket(final String bucketName);
+
+    BucketDeletionDto forceDeleteBucket(final String bucketName, final BulkOperationOptions<ObjectOperationResultDto> options);
+
     BucketInfoDto getBucketInfo(final String bucketName);
 
 }
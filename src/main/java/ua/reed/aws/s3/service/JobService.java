@@ -0,0 +1,29 @@
+package ua.reed.aws.s3.service;
+
+import ua.reed.aws.s3.dto.BatchDeleteRequestDto;
+import ua.reed.aws.s3.dto.BulkTagRequestDto;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
+import ua.reed.aws.s3.dto.DeleteBucketRequestDto;
+import ua.reed.aws.s3.dto.JobDto;
+
+import java.util.List;
+
+public interface JobService {
+
+    JobDto deleteObjects(final BatchDeleteRequestDto request);
+
+    JobDto addTags(final BulkTagRequestDto request);
+
+    JobDto copyObjects(final CopyObjectsRequestDto request);
+
+    JobDto moveObjects(final CopyObjectsRequestDto request);
+
+    JobDto deleteBucket(final DeleteBucketRequestDto request);
+
+    JobDto getJob(final String jobId);
+
+    List<JobDto> getJobs();
+
+    JobDto cancelJob(final String jobId);
+
+}
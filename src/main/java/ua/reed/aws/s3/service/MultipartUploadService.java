@@ -0,0 +1,26 @@
+package ua.reed.aws.s3.service;
+
+import ua.reed.aws.s3.dto.CompleteMultipartUploadRequestDto;
+import ua.reed.aws.s3.dto.CompleteMultipartUploadResponseDto;
+import ua.reed.aws.s3.dto.InitiateMultipartUploadRequestDto;
+import ua.reed.aws.s3.dto.InitiateMultipartUploadResponseDto;
+import ua.reed.aws.s3.dto.PreSignPartsRequestDto;
+import ua.reed.aws.s3.dto.PreSignedPartUrlDto;
+
+import java.util.List;
+
+/**
+ * Coordinates multipart uploads that clients send straight to S3 with pre-signed part urls,
+ * only the control calls go through this service.
+ */
+public interface MultipartUploadService {
+
+    InitiateMultipartUploadResponseDto initiateUpload(final InitiateMultipartUploadRequestDto request);
+
+    List<PreSignedPartUrlDto> preSignParts(final PreSignPartsRequestDto request);
+
+    CompleteMultipartUploadResponseDto completeUpload(final CompleteMultipartUploadRequestDto request);
+
+    void abortUpload(final String bucketName, final String objectKey, final String uploadId);
+
+}
@@ -1,10 +1,28 @@
 package ua.reed.aws.s3.service;
 
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import ua.reed.aws.s3.dto.AddTagsRequestDto;
+import ua.reed.aws.s3.dto.ArchiveRequestDto;
+import ua.reed.aws.s3.dto.BatchDeleteRequestDto;
+import ua.reed.aws.s3.dto.BatchDeleteResponseDto;
+import ua.reed.aws.s3.dto.BulkTagRequestDto;
+import ua.reed.aws.s3.dto.BulkTagResponseDto;
+import ua.reed.aws.s3.dto.CopyObjectResultDto;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
+import ua.reed.aws.s3.dto.CopyObjectsResponseDto;
 import ua.reed.aws.s3.dto.ObjectInfoDto;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.dto.ObjectSummaryDto;
+import ua.reed.aws.s3.service.model.BulkOperationCounts;
+import ua.reed.aws.s3.service.model.BulkOperationOptions;
+import ua.reed.aws.s3.service.model.GetObjectOptions;
+import ua.reed.aws.s3.service.model.ListObjectsOptions;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 public interface ObjectService {
 
@@ -14,14 +32,40 @@ public interface ObjectService {
 
     void addTags(final AddTagsRequestDto request);
 
-    ResponseBytes<GetObjectResponse> getObject(final String bucketName, final String objectKey);
+    BulkTagResponseDto addTags(final BulkTagRequestDto request);
+
+    BulkOperationCounts addTags(final BulkTagRequestDto request, final BulkOperationOptions<ObjectOperationResultDto> options);
+
+    void writeArchive(final ArchiveRequestDto request, final OutputStream outputStream);
+
+    CopyObjectsResponseDto copyObjects(final CopyObjectsRequestDto request);
+
+    BulkOperationCounts copyObjects(final CopyObjectsRequestDto request, final BulkOperationOptions<CopyObjectResultDto> options);
+
+    CopyObjectsResponseDto moveObjects(final CopyObjectsRequestDto request);
+
+    BulkOperationCounts moveObjects(final CopyObjectsRequestDto request, final BulkOperationOptions<CopyObjectResultDto> options);
+
+    ResponseInputStream<GetObjectResponse> getObject(final String bucketName, final String objectKey);
+
+    ResponseInputStream<GetObjectResponse> getObject(final GetObjectOptions options);
+
+    void downloadObjectInParallel(final String bucketName, final ObjectInfoDto objectInfo, final OutputStream outputStream);
+
+    void downloadObjectInParallel(final String bucketName, final String objectKey, final Path target);
 
     byte[] getObjectFromPreSignedUrl(final String bucketName, final String objectKey);
 
     void deleteObject(final String bucketName, final String objectKey);
 
+    BatchDeleteResponseDto deleteObjects(final BatchDeleteRequestDto request);
+
+    BulkOperationCounts deleteObjects(final BatchDeleteRequestDto request, final BulkOperationOptions<ObjectOperationResultDto> options);
+
     void deleteObjectByPreSignedUrl(final String bucketName, final String objectKey);
 
     ObjectInfoDto getObjectInfo(final String bucketName, final String objectKey);
 
+    Stream<ObjectSummaryDto> listObjects(final ListObjectsOptions options);
+
 }
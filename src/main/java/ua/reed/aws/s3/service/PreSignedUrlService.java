@@ -1,12 +1,25 @@
 package ua.reed.aws.s3.service;
 
+import ua.reed.aws.s3.dto.PreSignedPartUrlDto;
+import ua.reed.aws.s3.dto.PreSignedUrlDto;
 import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
 import ua.reed.aws.s3.service.model.PreSignedUrlOptions;
 
 import java.net.URL;
+import java.util.List;
 
 public interface PreSignedUrlService {
 
     URL generatePreSignedUrlForObject(final PreSignedUrlOptions options);
 
+    List<PreSignedUrlDto> generatePreSignedUrls(final String bucketName,
+                                                final List<String> objectKeys,
+                                                final PreSignedUrlOperationType operationType);
+
+    List<PreSignedPartUrlDto> generatePreSignedUploadPartUrls(final String bucketName,
+                                                              final String objectKey,
+                                                              final String uploadId,
+                                                              final int firstPartNumber,
+                                                              final int partCount);
+
 }
@@ -0,0 +1,328 @@
+package ua.reed.aws.s3.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3JobProperties;
+import ua.reed.aws.s3.dto.BatchDeleteRequestDto;
+import ua.reed.aws.s3.dto.BulkTagRequestDto;
+import ua.reed.aws.s3.dto.CopyObjectResultDto;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
+import ua.reed.aws.s3.dto.DeleteBucketRequestDto;
+import ua.reed.aws.s3.dto.JobDto;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.enums.JobStatus;
+import ua.reed.aws.s3.enums.JobType;
+import ua.reed.aws.s3.job.JobProgress;
+import ua.reed.aws.s3.job.JobStore;
+import ua.reed.aws.s3.service.BucketService;
+import ua.reed.aws.s3.service.JobService;
+import ua.reed.aws.s3.service.ObjectService;
+import ua.reed.aws.s3.service.model.BulkOperationOptions;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs bulk object operations and forced bucket deletions in the background. A job thread selects the objects and waits for permits while the
+ * S3 calls run on the transfer executor, so a job costs one thread of the job executor however big it is.
+ * <p>
+ * The progress of every job is written to the {@link JobStore} as it runs. Jobs which haven't finished when
+ * the service stops are resumed after their checkpoint on the next start. A bucket deletion has no checkpoint key,
+ * it is resumed by listing the versions left from the start.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackgroundJobService implements JobService {
+
+    private final ObjectService objectService;
+    private final BucketService bucketService;
+    private final JobStore jobStore;
+    private final S3JobProperties jobProperties;
+    private final ObjectMapper objectMapper;
+    @Qualifier(ExecutorConfig.S3_JOB_EXECUTOR)
+    private final Executor jobExecutor;
+    private final Map<String, JobDto> jobs = new ConcurrentHashMap<>();
+    private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    @Override
+    public JobDto deleteObjects(final BatchDeleteRequestDto request) {
+        S3Utils.validateBucketName(request.bucketName());
+        S3Utils.validateObjectSelection(request.objectKeys(), request.prefix());
+        return submit(JobType.DELETE_OBJECTS, request);
+    }
+
+    @Override
+    public JobDto addTags(final BulkTagRequestDto request) {
+        S3Utils.validateBucketName(request.bucketName());
+        S3Utils.validateObjectSelection(request.objectKeys(), request.prefix());
+        if (request.tags() == null || request.tags().isEmpty()) {
+            throw new IllegalArgumentException("Parameter [tags] must not be null or empty!");
+        }
+        return submit(JobType.TAG_OBJECTS, request);
+    }
+
+    @Override
+    public JobDto copyObjects(final CopyObjectsRequestDto request) {
+        S3Utils.validateCopyRequest(request);
+        return submit(JobType.COPY_OBJECTS, request);
+    }
+
+    @Override
+    public JobDto moveObjects(final CopyObjectsRequestDto request) {
+        S3Utils.validateCopyRequest(request);
+        return submit(JobType.MOVE_OBJECTS, request);
+    }
+
+    @Override
+    public JobDto deleteBucket(final DeleteBucketRequestDto request) {
+        S3Utils.validateBucketName(request.bucketName());
+        return submit(JobType.DELETE_BUCKET, request);
+    }
+
+    @Override
+    public JobDto getJob(final String jobId) {
+        RunningJob runningJob = this.runningJobs.get(jobId);
+        if (runningJob != null) {
+            return runningJob.progress().snapshot();
+        }
+        JobDto job = this.jobs.get(jobId);
+        if (job == null) {
+            throw new NoSuchElementException("No job '%s'".formatted(jobId));
+        }
+        return job;
+    }
+
+    @Override
+    public List<JobDto> getJobs() {
+        Map<String, JobDto> jobs = new HashMap<>(this.jobs);
+        this.runningJobs.forEach((jobId, runningJob) -> jobs.put(jobId, runningJob.progress().snapshot()));
+        return jobs.values()
+                .stream()
+                .sorted(Comparator.comparing(JobDto::createdAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Objects already started are still processed, the job ends as cancelled once they are done.
+     * A finished job is returned as it is.
+     */
+    @Override
+    public JobDto cancelJob(final String jobId) {
+        RunningJob runningJob = this.runningJobs.get(jobId);
+        if (runningJob == null) {
+            return getJob(jobId);
+        }
+        runningJob.progress().cancel();
+        log.info("Cancelling job={}", jobId);
+        return runningJob.progress().snapshot();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        Instant expiration = Instant.now().minus(this.jobProperties.getRetention());
+        this.jobStore.load()
+                .stream()
+                .sorted(Comparator.comparing(JobDto::createdAt))
+                .forEach(job -> {
+                    if (!job.status().isFinished()) {
+                        this.jobs.put(job.jobId(), job);
+                        log.info("Resuming job={} of type={} after key={}", job.jobId(), job.type(), job.lastKey());
+                        schedule(job);
+                    } else if (job.finishedAt() == null || job.finishedAt().isBefore(expiration)) {
+                        this.jobStore.delete(job.jobId());
+                    } else {
+                        this.jobs.put(job.jobId(), job);
+                    }
+                });
+    }
+
+    /**
+     * Runs before the S3 clients and executors the jobs depend on are closed, so the objects already started
+     * are finished and checkpointed rather than failed.
+     */
+    @PreDestroy
+    public void stopJobs() {
+        if (this.runningJobs.isEmpty()) {
+            return;
+        }
+        log.info("Stopping {} jobs", this.runningJobs.size());
+        this.runningJobs.values().forEach(runningJob -> runningJob.progress().stop());
+        try {
+            CompletableFuture.allOf(this.runningJobs.values().stream().map(RunningJob::completion).toArray(CompletableFuture[]::new))
+                    .get(this.jobProperties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.warn("Jobs={} haven't stopped in time, they are resumed from their last checkpoint", this.runningJobs.keySet(), ex);
+        }
+    }
+
+    private JobDto submit(final JobType type, final Object request) {
+        JobDto job = JobDto.queued(UUID.randomUUID().toString(), type, this.objectMapper.valueToTree(request));
+        try {
+            this.jobStore.save(job);
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot submit a job of type='%s'".formatted(type), ex);
+        }
+        this.jobs.put(job.jobId(), job);
+        schedule(job);
+        log.info("Submitted job={} of type={}", job.jobId(), type);
+        return job;
+    }
+
+    private void schedule(final JobDto job) {
+        JobProgress progress = new JobProgress(job);
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        this.runningJobs.put(job.jobId(), new RunningJob(progress, completion));
+        this.jobExecutor.execute(() -> {
+            try {
+                run(progress);
+            } finally {
+                this.runningJobs.remove(job.jobId());
+                completion.complete(null);
+            }
+        });
+    }
+
+    private void run(final JobProgress progress) {
+        JobDto job = progress.getJob();
+        if (progress.isStopped()) {
+            return;
+        }
+        progress.start();
+        checkpoint(progress);
+        try {
+            switch (job.type()) {
+                case DELETE_OBJECTS -> this.objectService.deleteObjects(read(job, BatchDeleteRequestDto.class), objectOptions(progress));
+                case TAG_OBJECTS -> this.objectService.addTags(read(job, BulkTagRequestDto.class), objectOptions(progress));
+                case COPY_OBJECTS -> this.objectService.copyObjects(read(job, CopyObjectsRequestDto.class), copyOptions(progress));
+                case MOVE_OBJECTS -> this.objectService.moveObjects(read(job, CopyObjectsRequestDto.class), copyOptions(progress));
+                case DELETE_BUCKET -> this.bucketService.forceDeleteBucket(read(job, DeleteBucketRequestDto.class).bucketName(), bucketOptions(progress));
+            }
+            if (progress.isCancelled()) {
+                progress.finish(JobStatus.CANCELLED, null);
+            } else if (!progress.isStopped()) {
+                progress.finish(JobStatus.COMPLETED, null);
+            }
+        } catch (Exception ex) {
+            if (progress.isStopped()) {
+                log.warn("Job={} was interrupted by the shutdown, it's resumed on the next start", job.jobId(), ex);
+            } else {
+                log.error("Job={} of type={} failed", job.jobId(), job.type(), ex);
+                progress.finish(JobStatus.FAILED, ex.getMessage());
+            }
+        }
+        JobDto result = checkpoint(progress);
+        log.info(
+                "Job={} of type={} is {}: {} succeeded, {} skipped, {} failed",
+                result.jobId(),
+                result.type(),
+                result.status(),
+                result.succeeded(),
+                result.skipped(),
+                result.failed()
+        );
+    }
+
+    private BulkOperationOptions<ObjectOperationResultDto> objectOptions(final JobProgress progress) {
+        return BulkOperationOptions.<ObjectOperationResultDto>builder()
+                .startAfter(progress.getJob().lastKey())
+                .onSelected(objectKey -> select(progress, objectKey))
+                .onResult(result -> {
+                    if (result.success()) {
+                        progress.succeeded(result.objectKey());
+                    } else {
+                        progress.failed(result.objectKey());
+                    }
+                })
+                .build();
+    }
+
+    private BulkOperationOptions<CopyObjectResultDto> copyOptions(final JobProgress progress) {
+        return BulkOperationOptions.<CopyObjectResultDto>builder()
+                .startAfter(progress.getJob().lastKey())
+                .onSelected(objectKey -> select(progress, objectKey))
+                .onResult(result -> {
+                    switch (result.status()) {
+                        case COPIED -> progress.succeeded(result.sourceKey());
+                        case SKIPPED -> progress.skipped(result.sourceKey());
+                        case FAILED -> progress.failed(result.sourceKey());
+                    }
+                })
+                .build();
+    }
+
+    private BulkOperationOptions<ObjectOperationResultDto> bucketOptions(final JobProgress progress) {
+        return BulkOperationOptions.<ObjectOperationResultDto>builder()
+                .onSelected(objectKey -> {
+                    if (progress.isCheckpointDue(this.jobProperties.getCheckpointInterval())) {
+                        checkpoint(progress);
+                    }
+                    return progress.select();
+                })
+                .onResult(result -> {
+                    if (result.success()) {
+                        progress.succeeded();
+                    } else {
+                        progress.failed();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Called on the job thread for every selected object, which keeps the file writes off the transfer executor.
+     */
+    private boolean select(final JobProgress progress, final String objectKey) {
+        if (progress.isCheckpointDue(this.jobProperties.getCheckpointInterval())) {
+            checkpoint(progress);
+        }
+        return progress.select(objectKey);
+    }
+
+    /**
+     * A job whose file can't be written keeps running, it just resumes from an older checkpoint.
+     */
+    private JobDto checkpoint(final JobProgress progress) {
+        JobDto job = progress.snapshot();
+        this.jobs.put(job.jobId(), job);
+        try {
+            this.jobStore.save(job);
+        } catch (Exception ex) {
+            log.warn("Cannot save the checkpoint of job={}", job.jobId(), ex);
+        }
+        return job;
+    }
+
+    private <T> T read(final JobDto job, final Class<T> requestType) {
+        try {
+            return this.objectMapper.treeToValue(job.request(), requestType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read the request of job '%s'".formatted(job.jobId()), ex);
+        }
+    }
+
+    private record RunningJob(JobProgress progress, CompletableFuture<Void> completion) {
+    }
+}
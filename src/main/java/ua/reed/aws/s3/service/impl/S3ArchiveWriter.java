@@ -0,0 +1,213 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import ua.reed.aws.s3.archive.ArchiveOutput;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.enums.ArchiveFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams many objects as one archive. While an object is written, the first
+ * {@link S3TransferProperties#getArchivePrefetchSize()} bytes of the next
+ * {@link S3TransferProperties#getArchivePrefetchObjects()} objects are already fetched on the transfer executor with
+ * ranged GETs. The rest of an object is requested once it's its turn, bound to the ETag of its first bytes, so no
+ * response is left open while the objects before it are written and memory is bound by the prefetch window.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ArchiveWriter {
+
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+
+    private final S3Client s3Client;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    /**
+     * Objects which no longer exist are skipped, as are keys with {@code .} or {@code ..} segments and keys starting
+     * with {@code /}, which would point outside the target directory when the archive is extracted. The entries are
+     * named by their keys, so the names are as unique as the keys.
+     *
+     * @param objectKeys consumed lazily, so a listing is archived page by page while it is being read
+     */
+    public void write(final String bucketName,
+                      final Iterator<String> objectKeys,
+                      final ArchiveFormat format,
+                      final OutputStream outputStream) throws IOException {
+        int prefetchObjects = this.transferProperties.getArchivePrefetchObjects();
+        int prefetchSize = (int) this.transferProperties.getArchivePrefetchSize().toBytes();
+        byte[] buffer = new byte[(int) this.transferProperties.getDownloadBufferSize().toBytes()];
+        ArchiveOutput archive = ArchiveOutput.open(format, outputStream, this.transferProperties.getArchiveCompressionLevel());
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Deque<CompletableFuture<PrefetchedObject>> window = new ArrayDeque<>();
+        long entries = 0;
+        long bytes = 0;
+        try {
+            fill(window, bucketName, objectKeys, prefetchObjects, prefetchSize, abandoned);
+            while (!window.isEmpty()) {
+                CompletableFuture<PrefetchedObject> next = window.poll();
+                fill(window, bucketName, objectKeys, prefetchObjects, prefetchSize, abandoned);
+                PrefetchedObject object = next.join();
+                if (object != null) {
+                    bytes += writeEntry(archive, bucketName, object, buffer);
+                    entries++;
+                }
+            }
+            archive.finish();
+            log.info("Archived {} objects ({} bytes) from bucket={} as {}", entries, bytes, bucketName, format);
+        } finally {
+            // the objects not yet requested are skipped
+            abandoned.set(true);
+        }
+    }
+
+    private void fill(final Deque<CompletableFuture<PrefetchedObject>> window,
+                      final String bucketName,
+                      final Iterator<String> objectKeys,
+                      final int prefetchObjects,
+                      final int prefetchSize,
+                      final AtomicBoolean abandoned) {
+        while (window.size() < prefetchObjects && objectKeys.hasNext()) {
+            String objectKey = objectKeys.next();
+            window.add(CompletableFuture.supplyAsync(() -> abandoned.get() ? null : prefetch(bucketName, objectKey, prefetchSize), this.transferExecutor));
+        }
+    }
+
+    private PrefetchedObject prefetch(final String bucketName, final String objectKey, final int prefetchSize) {
+        if (!isSafeEntryName(objectKey)) {
+            log.warn("Skipping object={} of bucket={}, its key isn't a safe archive entry name", objectKey, bucketName);
+            return null;
+        }
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey);
+        try {
+            ResponseBytes<GetObjectResponse> head = this.s3Client.getObjectAsBytes(
+                    request.range("bytes=0-%d".formatted(prefetchSize - 1)).build()
+            );
+            return PrefetchedObject.of(objectKey, head);
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == HttpStatusCode.NOT_FOUND) {
+                log.warn("Skipping object={} of bucket={}, it doesn't exist", objectKey, bucketName);
+                return null;
+            }
+            if (ex.statusCode() == RANGE_NOT_SATISFIABLE) {
+                // an empty object has no first byte to ask for
+                return PrefetchedObject.of(objectKey, this.s3Client.getObjectAsBytes(request.range(null).build()));
+            }
+            throw ex;
+        }
+    }
+
+    private long writeEntry(final ArchiveOutput archive,
+                            final String bucketName,
+                            final PrefetchedObject object,
+                            final byte[] buffer) throws IOException {
+        String name = object.objectKey();
+        boolean directory = name.endsWith("/");
+        long size = directory ? 0 : object.size();
+        archive.putEntry(name, size, object.lastModified());
+        if (!directory) {
+            archive.write(object.head(), 0, object.head().length);
+            if (object.head().length < size) {
+                writeRest(archive, bucketName, object, buffer);
+            }
+        }
+        archive.closeEntry();
+        return size;
+    }
+
+    /**
+     * The entry header already holds the size of the version whose first bytes were written,
+     * so an object overwritten since then fails the archive ({@code If-Match}) rather than corrupting it.
+     */
+    private void writeRest(final ArchiveOutput archive,
+                           final String bucketName,
+                           final PrefetchedObject object,
+                           final byte[] buffer) throws IOException {
+        try (ResponseInputStream<GetObjectResponse> rest = this.s3Client.getObject(
+                GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(object.objectKey())
+                        .range("bytes=%d-".formatted(object.head().length))
+                        .ifMatch(object.eTag())
+                        .build()
+        )) {
+            try {
+                int read;
+                while ((read = rest.read(buffer)) != -1) {
+                    archive.write(buffer, 0, read);
+                }
+            } catch (IOException | RuntimeException ex) {
+                rest.abort();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Archive entry names are relative. Stripping the leading slashes instead would give the keys {@code a} and
+     * {@code /a} the same entry name, which a ZIP rejects halfway through the archive.
+     */
+    private static boolean isSafeEntryName(final String objectKey) {
+        if (objectKey.startsWith("/")) {
+            return false;
+        }
+        for (String segment : objectKey.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The first bytes of an object with the version they belong to.
+     */
+    private record PrefetchedObject(String objectKey, byte[] head, long size, String eTag, Instant lastModified) {
+
+        private static PrefetchedObject of(final String objectKey, final ResponseBytes<GetObjectResponse> head) {
+            GetObjectResponse response = head.response();
+            return new PrefetchedObject(
+                    objectKey,
+                    head.asByteArrayUnsafe(),
+                    objectSize(response),
+                    response.eTag(),
+                    response.lastModified()
+            );
+        }
+
+        /**
+         * The size of the whole object follows the slash of the {@code Content-Range} of a ranged response,
+         * a response without one holds the whole object.
+         */
+        private static long objectSize(final GetObjectResponse response) {
+            String contentRange = response.contentRange();
+            return contentRange == null
+                    ? response.contentLength()
+                    : Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1));
+        }
+    }
+}
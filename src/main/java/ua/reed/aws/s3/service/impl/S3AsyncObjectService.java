@@ -0,0 +1,187 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.Tag;
+import software.amazon.awssdk.services.s3.model.Tagging;
+import ua.reed.aws.s3.cache.ObjectMetadataCache;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.dto.AddTagsRequestDto;
+import ua.reed.aws.s3.dto.CustomTagDto;
+import ua.reed.aws.s3.dto.ObjectInfoDto;
+import ua.reed.aws.s3.service.AsyncObjectService;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Non-blocking counterpart of {@link S3ObjectService} backed by the CRT based {@link S3AsyncClient}:
+ * no thread waits for S3 while a request is in flight.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aws.s3.async", name = "enabled", havingValue = "true")
+public class S3AsyncObjectService implements AsyncObjectService {
+
+    private final S3AsyncClient s3AsyncClient;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final TaskExecutor transferExecutor;
+    private final ObjectMetadataCache objectMetadataCache;
+
+    @Override
+    public CompletableFuture<Void> createObject(final String bucketName, final String objectKey, final MultipartFile multipartFile) {
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectKey(objectKey);
+        InputStream inputStream;
+        try {
+            inputStream = multipartFile.getInputStream();
+        } catch (IOException ex) {
+            throw new RuntimeException("Cannot upload a file '%s' to S3 bucket '%s'".formatted(multipartFile.getOriginalFilename(), bucketName), ex);
+        }
+        return withFailureMessage(
+                this.s3AsyncClient.putObject(
+                                PutObjectRequest.builder()
+                                        .key(objectKey)
+                                        .bucket(bucketName)
+                                        .build(),
+                                // the multipart file is read on the transfer executor, the client itself never blocks on it
+                                AsyncRequestBody.fromInputStream(inputStream, multipartFile.getSize(), new ExecutorServiceAdapter(this.transferExecutor))
+                        )
+                        .whenComplete((response, ex) -> closeQuietly(inputStream))
+                        .thenAccept(response -> {
+                            this.objectMetadataCache.invalidate(bucketName, objectKey);
+                            log.info("File '{}' successfully uploaded to S3 bucket {}", multipartFile.getOriginalFilename(), bucketName);
+                        }),
+                "Cannot upload a file '%s' to S3 bucket '%s'".formatted(multipartFile.getOriginalFilename(), bucketName)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> addTags(final AddTagsRequestDto request) {
+        String bucketName = request.bucketName();
+        S3Utils.validateBucketName(bucketName);
+        String objectKey = request.objectKey();
+        S3Utils.validateObjectKey(objectKey);
+        List<CustomTagDto> tags = request.tags();
+        if (tags.isEmpty()) {
+            log.warn("Received empty tags for bucket={}, objectKey={}, operation will be skipped", bucketName, objectKey);
+            return CompletableFuture.completedFuture(null);
+        }
+        List<Tag> targetCompatibleTags = tags.stream()
+                .map(t -> Tag.builder()
+                        .key(t.key())
+                        .value(t.value())
+                        .build()
+                )
+                .toList();
+        return withFailureMessage(
+                this.s3AsyncClient.putObjectTagging(
+                                PutObjectTaggingRequest.builder()
+                                        .bucket(bucketName)
+                                        .key(objectKey)
+                                        .tagging(Tagging.builder().tagSet(targetCompatibleTags).build())
+                                        .build()
+                        )
+                        .thenAccept(response -> {
+                            this.objectMetadataCache.invalidate(bucketName, objectKey);
+                            log.info("Added tags for object={}, bucket={}", objectKey, bucketName);
+                        }),
+                "Failed to add tags for objectKey='%s', bucket='%s'".formatted(objectKey, bucketName)
+        );
+    }
+
+    @Override
+    public CompletableFuture<ResponseInputStream<GetObjectResponse>> getObject(final String bucketName, final String objectKey) {
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectKey(objectKey);
+        return withFailureMessage(
+                this.s3AsyncClient.getObject(
+                        GetObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(objectKey)
+                                .build(),
+                        AsyncResponseTransformer.toBlockingInputStream()
+                ),
+                "Cannot download object by key='%s' from bucket='%s'".formatted(objectKey, bucketName)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteObject(final String bucketName, final String objectKey) {
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectKey(objectKey);
+        return withFailureMessage(
+                this.s3AsyncClient.deleteObject(
+                                DeleteObjectRequest.builder()
+                                        .key(objectKey)
+                                        .bucket(bucketName)
+                                        .build()
+                        )
+                        .thenAccept(response -> {
+                            this.objectMetadataCache.invalidate(bucketName, objectKey);
+                            log.info("Object={} was deleted from bucket={}", objectKey, bucketName);
+                        }),
+                "Cannot delete object='%s' from bucket='%s'".formatted(objectKey, bucketName)
+        );
+    }
+
+    @Override
+    public CompletableFuture<ObjectInfoDto> getObjectInfo(final String bucketName, final String objectKey) {
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectKey(objectKey);
+        return withFailureMessage(
+                this.s3AsyncClient.headObject(
+                                HeadObjectRequest.builder()
+                                        .key(objectKey)
+                                        .bucket(bucketName)
+                                        .build()
+                        )
+                        .thenApply(response -> ObjectInfoDto.builder()
+                                .objectKey(objectKey)
+                                .contentType(response.contentType())
+                                .contentLength(response.contentLength())
+                                .eTag(response.eTag())
+                                .lastModified(response.lastModified())
+                                .expiration(response.expiration())
+                                .expires(response.expires())
+                                .build()
+                        ),
+                "Cannot get info for objectKey='%s' from bucket='%s'".formatted(objectKey, bucketName)
+        );
+    }
+
+    private <T> CompletableFuture<T> withFailureMessage(final CompletableFuture<T> future, final String message) {
+        return future.exceptionally(ex -> {
+            throw new RuntimeException(message, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+        });
+    }
+
+    private void closeQuietly(final InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException ex) {
+            log.warn("Cannot close upload stream", ex);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes objects with {@code DeleteObjects} requests of up to 1000 keys each, sending
+ * at most {@link S3TransferProperties#getBatchDeleteParallelism()} requests at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3BatchDeleter {
+
+    public static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    private final S3Client s3Client;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    /**
+     * The objects are consumed lazily, so a listing can be deleted page by page while it is being read.
+     * The results are not kept, so any number of objects can be deleted, e.g. every version of a bucket.
+     *
+     * @param listener notified of the result of every object as soon as its batch is done
+     * @return number of {@code DeleteObjects} requests sent
+     */
+    public long deleteAll(final String bucketName,
+                          final Iterator<ObjectIdentifier> objects,
+                          final Consumer<ObjectOperationResultDto> listener) {
+        int parallelism = this.transferProperties.getBatchDeleteParallelism();
+        Semaphore batchesInFlight = new Semaphore(parallelism);
+        long batches = 0;
+        try {
+            while (objects.hasNext()) {
+                List<ObjectIdentifier> batch = new ArrayList<>(MAX_KEYS_PER_REQUEST);
+                while (objects.hasNext() && batch.size() < MAX_KEYS_PER_REQUEST) {
+                    batch.add(objects.next());
+                }
+                batchesInFlight.acquire();
+                CompletableFuture.supplyAsync(() -> deleteBatch(bucketName, batch), this.transferExecutor)
+                        .whenComplete((results, ex) -> {
+                            try {
+                                if (results != null) {
+                                    results.forEach(listener);
+                                }
+                            } finally {
+                                batchesInFlight.release();
+                            }
+                        });
+                batches++;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch delete in bucket='%s' was interrupted".formatted(bucketName), ex);
+        } finally {
+            S3Utils.awaitCompletion(batchesInFlight, parallelism);
+        }
+        log.info("Deleted objects from bucket={} in {} batches", bucketName, batches);
+        return batches;
+    }
+
+    private List<ObjectOperationResultDto> deleteBatch(final String bucketName, final List<ObjectIdentifier> batch) {
+        try {
+            // quiet mode: S3 reports only the failed keys, which keeps the response small
+            DeleteObjectsResponse response = this.s3Client.deleteObjects(
+                    DeleteObjectsRequest.builder()
+                            .bucket(bucketName)
+                            .delete(Delete.builder().objects(batch).quiet(true).build())
+                            .build()
+            );
+            Map<String, S3Error> errors = response.errors()
+                    .stream()
+                    .collect(Collectors.toMap(e -> errorKey(e.key(), e.versionId()), Function.identity(), (first, second) -> first));
+            return batch.stream()
+                    .map(object -> {
+                        S3Error error = errors.get(errorKey(object.key(), object.versionId()));
+                        return error == null
+                                ? ObjectOperationResultDto.succeeded(object.key())
+                                : ObjectOperationResultDto.failed(object.key(), error.code(), error.message());
+                    })
+                    .toList();
+        } catch (Exception ex) {
+            log.error("DeleteObjects of {} keys in bucket={} failed", batch.size(), bucketName, ex);
+            String errorCode = ex instanceof S3Exception s3Exception && s3Exception.awsErrorDetails() != null
+                    ? s3Exception.awsErrorDetails().errorCode()
+                    : ex.getClass().getSimpleName();
+            return batch.stream()
+                    .map(object -> ObjectOperationResultDto.failed(object.key(), errorCode, ex.getMessage()))
+                    .toList();
+        }
+    }
+
+    private static String errorKey(final String key, final String versionId) {
+        return versionId == null ? key : key + '\u0000' + versionId;
+    }
+}
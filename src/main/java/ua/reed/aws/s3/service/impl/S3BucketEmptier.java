@@ -0,0 +1,126 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectVersionsRequest;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Empties a bucket before it is deleted: every object version and delete marker, which S3 requires to be gone,
+ * then every multipart upload that was never completed, so no uploaded parts outlive the bucket.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3BucketEmptier {
+
+    private final S3Client s3Client;
+    private final S3BatchDeleter batchDeleter;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    /**
+     * Deletes the versions page by page while {@code ListObjectVersions} is being read. The listing is paged
+     * by key and version markers, so the versions deleted behind it do not shift the pages still to come.
+     * Works for unversioned buckets too, where every object is listed as version {@code null}.
+     *
+     * @param onSelected asked for the key of every version before it is deleted, {@code false} stops the deletion
+     * @param listener   notified of the result of every version as soon as its batch is done
+     * @return whether every listed version was sent for deletion, {@code false} when {@code onSelected} stopped it
+     */
+    public boolean deleteVersions(final String bucketName,
+                                  final Predicate<String> onSelected,
+                                  final Consumer<ObjectOperationResultDto> listener) {
+        AtomicBoolean stopped = new AtomicBoolean();
+        Stream<ObjectIdentifier> versions = this.s3Client.listObjectVersionsPaginator(
+                        ListObjectVersionsRequest.builder()
+                                .bucket(bucketName)
+                                .maxKeys(S3BatchDeleter.MAX_KEYS_PER_REQUEST)
+                                .build()
+                ).stream()
+                .flatMap(page -> Stream.concat(
+                        page.versions().stream().map(v -> objectIdentifier(v.key(), v.versionId())),
+                        page.deleteMarkers().stream().map(m -> objectIdentifier(m.key(), m.versionId()))
+                ));
+        try (Stream<ObjectIdentifier> selected = S3Utils.takeWhileConsumed(versions, version -> {
+            if (onSelected.test(version.key())) {
+                return true;
+            }
+            stopped.set(true);
+            return false;
+        })) {
+            this.batchDeleter.deleteAll(bucketName, selected.iterator(), listener);
+        }
+        return !stopped.get();
+    }
+
+    /**
+     * Aborts every multipart upload in the bucket, at most {@link S3TransferProperties#getBatchDeleteParallelism()}
+     * at a time. An upload that cannot be aborted is only logged, the bucket deletion reports it anyway.
+     *
+     * @return number of aborted uploads
+     */
+    public long abortMultipartUploads(final String bucketName) {
+        int parallelism = this.transferProperties.getBatchDeleteParallelism();
+        Semaphore abortsInFlight = new Semaphore(parallelism);
+        AtomicLong aborted = new AtomicLong();
+        try {
+            for (MultipartUpload upload : this.s3Client.listMultipartUploadsPaginator(
+                    ListMultipartUploadsRequest.builder().bucket(bucketName).build()
+            ).uploads()) {
+                abortsInFlight.acquire();
+                CompletableFuture.runAsync(() -> abortUpload(bucketName, upload), this.transferExecutor)
+                        .whenComplete((ignored, ex) -> {
+                            if (ex == null) {
+                                aborted.incrementAndGet();
+                            } else {
+                                log.warn("Cannot abort multipart upload of key={}, bucket={}, uploadId={}",
+                                        upload.key(), bucketName, upload.uploadId(), ex);
+                            }
+                            abortsInFlight.release();
+                        });
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Aborting multipart uploads in bucket='%s' was interrupted".formatted(bucketName), ex);
+        } finally {
+            S3Utils.awaitCompletion(abortsInFlight, parallelism);
+        }
+        log.info("Aborted {} multipart uploads in bucket={}", aborted.get(), bucketName);
+        return aborted.get();
+    }
+
+    private void abortUpload(final String bucketName, final MultipartUpload upload) {
+        this.s3Client.abortMultipartUpload(
+                AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(upload.key())
+                        .uploadId(upload.uploadId())
+                        .build()
+        );
+    }
+
+    private static ObjectIdentifier objectIdentifier(final String key, final String versionId) {
+        return ObjectIdentifier.builder().key(key).versionId(versionId).build();
+    }
+}
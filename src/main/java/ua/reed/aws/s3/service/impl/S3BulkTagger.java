@@ -0,0 +1,119 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.Tag;
+import software.amazon.awssdk.services.s3.model.Tagging;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.ratelimit.RateLimiter;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Tags many objects with one {@code PutObjectTagging} call per object, at most
+ * {@link S3TransferProperties#getBulkTagParallelism()} calls at a time and at most
+ * {@link S3TransferProperties#getBulkTagRate()} objects per second.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3BulkTagger {
+
+    private final S3Client s3Client;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    /**
+     * The keys are consumed lazily, so a listing can be tagged page by page while it is being read.
+     * The calling thread waits for the rate limit, the transfer executor only runs the S3 calls.
+     *
+     * @param merge    whether the tags are merged into the existing tag set of each object (get, merge, put)
+     *                 instead of replacing it. The merge is not atomic, a concurrent change of the tags may be lost
+     * @param listener notified of the result of every object as soon as it is known, the results are not kept
+     */
+    public void tag(final String bucketName,
+                    final Iterator<String> objectKeys,
+                    final List<Tag> tags,
+                    final boolean merge,
+                    final Consumer<ObjectOperationResultDto> listener) {
+        int parallelism = this.transferProperties.getBulkTagParallelism();
+        Semaphore requestsInFlight = new Semaphore(parallelism);
+        RateLimiter rateLimiter = new RateLimiter(this.transferProperties.getBulkTagRate());
+        try {
+            while (objectKeys.hasNext()) {
+                String objectKey = objectKeys.next();
+                rateLimiter.acquire();
+                requestsInFlight.acquire();
+                CompletableFuture.supplyAsync(() -> tagObject(bucketName, objectKey, tags, merge), this.transferExecutor)
+                        .whenComplete((result, ex) -> {
+                            ObjectOperationResultDto outcome = ex == null
+                                    ? result
+                                    : ObjectOperationResultDto.failed(objectKey, ex.getClass().getSimpleName(), ex.getMessage());
+                            try {
+                                listener.accept(outcome);
+                            } finally {
+                                requestsInFlight.release();
+                            }
+                        });
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bulk tagging in bucket='%s' was interrupted".formatted(bucketName), ex);
+        } finally {
+            S3Utils.awaitCompletion(requestsInFlight, parallelism);
+        }
+    }
+
+    private ObjectOperationResultDto tagObject(final String bucketName, final String objectKey, final List<Tag> tags, final boolean merge) {
+        try {
+            List<Tag> tagSet = merge ? mergeTags(getTags(bucketName, objectKey), tags) : tags;
+            this.s3Client.putObjectTagging(
+                    PutObjectTaggingRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .tagging(Tagging.builder().tagSet(tagSet).build())
+                            .build()
+            );
+            return ObjectOperationResultDto.succeeded(objectKey);
+        } catch (Exception ex) {
+            log.warn("Cannot tag object with key={}, bucket={}", objectKey, bucketName, ex);
+            String errorCode = ex instanceof S3Exception s3Exception && s3Exception.awsErrorDetails() != null
+                    ? s3Exception.awsErrorDetails().errorCode()
+                    : ex.getClass().getSimpleName();
+            return ObjectOperationResultDto.failed(objectKey, errorCode, ex.getMessage());
+        }
+    }
+
+    private List<Tag> getTags(final String bucketName, final String objectKey) {
+        return this.s3Client.getObjectTagging(
+                GetObjectTaggingRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .build()
+        ).tagSet();
+    }
+
+    private static List<Tag> mergeTags(final List<Tag> existing, final List<Tag> added) {
+        Map<String, Tag> merged = new LinkedHashMap<>();
+        existing.forEach(tag -> merged.put(tag.key(), tag));
+        added.forEach(tag -> merged.put(tag.key(), tag));
+        return List.copyOf(merged.values());
+    }
+}
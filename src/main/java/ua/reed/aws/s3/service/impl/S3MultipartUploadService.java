@@ -0,0 +1,154 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import ua.reed.aws.s3.cache.ObjectMetadataCache;
+import ua.reed.aws.s3.config.PreSignedUrlProperties;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.CompleteMultipartUploadRequestDto;
+import ua.reed.aws.s3.dto.CompleteMultipartUploadResponseDto;
+import ua.reed.aws.s3.dto.CompletedPartDto;
+import ua.reed.aws.s3.dto.InitiateMultipartUploadRequestDto;
+import ua.reed.aws.s3.dto.InitiateMultipartUploadResponseDto;
+import ua.reed.aws.s3.dto.PreSignPartsRequestDto;
+import ua.reed.aws.s3.dto.PreSignedPartUrlDto;
+import ua.reed.aws.s3.service.MultipartUploadService;
+import ua.reed.aws.s3.service.PreSignedUrlService;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3MultipartUploadService implements MultipartUploadService {
+
+    private final S3Client s3Client;
+    private final PreSignedUrlService preSignedUrlService;
+    private final ObjectMetadataCache objectMetadataCache;
+    private final S3TransferProperties transferProperties;
+    private final PreSignedUrlProperties preSignedUrlProperties;
+
+    @Override
+    public InitiateMultipartUploadResponseDto initiateUpload(final InitiateMultipartUploadRequestDto request) {
+        String bucketName = request.bucketName();
+        S3Utils.validateBucketName(bucketName);
+        String objectKey = request.objectKey();
+        S3Utils.validateObjectKey(objectKey);
+        int partCount = request.partCount() == null ? 0 : request.partCount();
+        // checked before the upload exists, a rejected request must not leave an upload behind
+        if (partCount < 0 || partCount > this.preSignedUrlProperties.getBulkMaximumKeys()) {
+            throw new IllegalArgumentException("Between 0 and %d part urls can be signed at once".formatted(this.preSignedUrlProperties.getBulkMaximumKeys()));
+        }
+        String uploadId;
+        try {
+            uploadId = this.s3Client.createMultipartUpload(
+                    CreateMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .contentType(request.contentType())
+                            .build()
+            ).uploadId();
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot start multipart upload of object '%s' to bucket '%s'".formatted(objectKey, bucketName), ex);
+        }
+        log.info("Started multipart upload of object with key={}, bucket={}, uploadId={}", objectKey, bucketName, uploadId);
+        List<PreSignedPartUrlDto> parts;
+        try {
+            parts = partCount == 0
+                    ? List.of()
+                    : this.preSignedUrlService.generatePreSignedUploadPartUrls(bucketName, objectKey, uploadId, 1, partCount);
+        } catch (RuntimeException ex) {
+            // the client never learns the uploadId, nobody else could abort the upload
+            try {
+                abortUpload(bucketName, objectKey, uploadId);
+            } catch (RuntimeException abortEx) {
+                ex.addSuppressed(abortEx);
+            }
+            throw ex;
+        }
+        return new InitiateMultipartUploadResponseDto(
+                bucketName,
+                objectKey,
+                uploadId,
+                this.transferProperties.getPartSize().toBytes(),
+                parts
+        );
+    }
+
+    @Override
+    public List<PreSignedPartUrlDto> preSignParts(final PreSignPartsRequestDto request) {
+        return this.preSignedUrlService.generatePreSignedUploadPartUrls(
+                request.bucketName(),
+                request.objectKey(),
+                request.uploadId(),
+                request.firstPartNumber(),
+                request.partCount()
+        );
+    }
+
+    @Override
+    public CompleteMultipartUploadResponseDto completeUpload(final CompleteMultipartUploadRequestDto request) {
+        String bucketName = request.bucketName();
+        S3Utils.validateBucketName(bucketName);
+        String objectKey = request.objectKey();
+        S3Utils.validateObjectKey(objectKey);
+        if (request.parts() == null || request.parts().isEmpty()) {
+            throw new IllegalArgumentException("Parameter [parts] must not be null or empty!");
+        }
+        // clients upload the parts concurrently and may report them in any order, S3 wants them ascending
+        List<CompletedPart> parts = request.parts().stream()
+                .sorted(Comparator.comparingInt(CompletedPartDto::partNumber))
+                .map(part -> CompletedPart.builder()
+                        .partNumber(part.partNumber())
+                        .eTag(part.eTag())
+                        .build())
+                .toList();
+        try {
+            CompleteMultipartUploadResponse response = this.s3Client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .uploadId(request.uploadId())
+                            .multipartUpload(
+                                    CompletedMultipartUpload.builder()
+                                            .parts(parts)
+                                            .build()
+                            )
+                            .build()
+            );
+            this.objectMetadataCache.invalidate(bucketName, objectKey);
+            log.info("Completed multipart upload of object with key={}, bucket={}, parts={}", objectKey, bucketName, parts.size());
+            return new CompleteMultipartUploadResponseDto(bucketName, objectKey, response.eTag());
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot complete multipart upload '%s' of object '%s' to bucket '%s'".formatted(request.uploadId(), objectKey, bucketName), ex);
+        }
+    }
+
+    @Override
+    public void abortUpload(final String bucketName, final String objectKey, final String uploadId) {
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectKey(objectKey);
+        try {
+            this.s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .uploadId(uploadId)
+                            .build()
+            );
+            log.info("Aborted multipart upload of object with key={}, bucket={}, uploadId={}", objectKey, bucketName, uploadId);
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot abort multipart upload '%s' of object '%s' in bucket '%s'".formatted(uploadId, objectKey, bucketName), ex);
+        }
+    }
+}
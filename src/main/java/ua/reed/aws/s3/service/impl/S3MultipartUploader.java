@@ -0,0 +1,150 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends a stream of unknown length to S3 as a multipart upload. The stream is read part by part and at most
+ * {@link S3TransferProperties#getMaxPartsInFlight()} parts are held in memory and uploaded concurrently.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3MultipartUploader {
+
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    private final S3Client s3Client;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    public void upload(final String bucketName, final String objectKey, final InputStream inputStream) {
+        String uploadId = this.s3Client.createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .build()
+        ).uploadId();
+        int partSize = (int) this.transferProperties.getPartSize().toBytes();
+        Semaphore partsInFlight = new Semaphore(this.transferProperties.getMaxPartsInFlight());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            int length;
+            do {
+                partsInFlight.acquire();
+                if (failure.get() != null) {
+                    break;
+                }
+                byte[] buffer = new byte[partSize];
+                length = inputStream.readNBytes(buffer, 0, partSize);
+                if (length == 0 && partNumber > 1) {
+                    partsInFlight.release();
+                    break;
+                }
+                int currentPartNumber = partNumber++;
+                int currentLength = length;
+                parts.add(
+                        CompletableFuture.supplyAsync(
+                                        () -> uploadPart(bucketName, objectKey, uploadId, currentPartNumber, buffer, currentLength),
+                                        this.transferExecutor
+                                )
+                                .whenComplete((part, ex) -> {
+                                    if (ex != null) {
+                                        failure.compareAndSet(null, ex);
+                                    }
+                                    partsInFlight.release();
+                                })
+                );
+            } while (length == partSize);
+            List<CompletedPart> completedParts = parts.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+            this.s3Client.completeMultipartUpload(
+                    CompleteMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .uploadId(uploadId)
+                            .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                            .build()
+            );
+            log.info("Completed multipart upload of object={} to bucket={}, parts: {}", objectKey, bucketName, completedParts.size());
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            abort(bucketName, objectKey, uploadId, parts);
+            throw new RuntimeException("Multipart upload of object='%s' to bucket='%s' failed".formatted(objectKey, bucketName), ex);
+        }
+    }
+
+    private CompletedPart uploadPart(final String bucketName,
+                                     final String objectKey,
+                                     final String uploadId,
+                                     final int partNumber,
+                                     final byte[] buffer,
+                                     final int length) {
+        UploadPartResponse response = this.s3Client.uploadPart(
+                UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(),
+                // a content provider instead of RequestBody.fromBytes() avoids copying the part buffer
+                RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length, CONTENT_TYPE)
+        );
+        log.debug("Uploaded part {} ({} bytes) of object={}, bucket={}", partNumber, length, objectKey, bucketName);
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(response.eTag())
+                .build();
+    }
+
+    private void abort(final String bucketName,
+                       final String objectKey,
+                       final String uploadId,
+                       final List<CompletableFuture<CompletedPart>> parts) {
+        // parts still being sent would otherwise be stored after the abort and keep being billed
+        CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .exceptionally(ex -> null)
+                .join();
+        try {
+            this.s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(bucketName)
+                            .key(objectKey)
+                            .uploadId(uploadId)
+                            .build()
+            );
+            log.warn("Aborted multipart upload of object={} to bucket={}", objectKey, bucketName);
+        } catch (Exception ex) {
+            log.error("Cannot abort multipart upload '{}' of object={}, bucket={}", uploadId, objectKey, bucketName, ex);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.HttpStatusCode;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.Tagging;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.CopyObjectResultDto;
+import ua.reed.aws.s3.utils.S3Utils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copies objects within S3, the content never passes through the service. Objects up to
+ * {@link S3TransferProperties#getCopyMultipartThreshold()} are copied with a single {@code CopyObject}, bigger ones
+ * with {@code UploadPartCopy} calls of {@link S3TransferProperties#getCopyPartSize()} bytes. At most
+ * {@link S3TransferProperties#getCopyParallelism()} objects are copied at a time, each with at most
+ * {@link S3TransferProperties#getCopyPartParallelism()} parts in flight.
+ * <p>
+ * The parts of an object are chained on the transfer executor rather than waited for, so a copy never holds
+ * an executor thread while its parts are queued behind it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ObjectCopier {
+
+    private static final int MAX_PARTS = 10_000;
+
+    private final S3Client s3Client;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    /**
+     * Every copy is bound to the ETag of the source seen at its start, a source overwritten in the meantime fails
+     * the copy rather than mixing versions. A moved source is deleted only after its copy has succeeded.
+     *
+     * @param sourceKeys    consumed lazily, so a listing is copied page by page while it is being read
+     * @param targetKeyOf   maps a source key to its key in the target bucket
+     * @param skipExisting  whether objects already copied are skipped, see {@link #isCopied}
+     * @param listener      notified of the result of every object as soon as it is known, the results are not kept
+     */
+    public void copy(final String sourceBucketName,
+                     final Iterator<String> sourceKeys,
+                     final String targetBucketName,
+                     final UnaryOperator<String> targetKeyOf,
+                     final boolean move,
+                     final boolean skipExisting,
+                     final Consumer<CopyObjectResultDto> listener) {
+        int parallelism = this.transferProperties.getCopyParallelism();
+        Semaphore objectsInFlight = new Semaphore(parallelism);
+        try {
+            while (sourceKeys.hasNext()) {
+                String sourceKey = sourceKeys.next();
+                String targetKey = targetKeyOf.apply(sourceKey);
+                objectsInFlight.acquire();
+                CopyTask task = new CopyTask(sourceBucketName, sourceKey, targetBucketName, targetKey);
+                CompletableFuture.supplyAsync(() -> prepare(task, skipExisting), this.transferExecutor)
+                        .thenCompose(source -> source == null ? CompletableFuture.completedFuture(false) : copyObject(task, source))
+                        .thenApplyAsync(copied -> {
+                            if (move) {
+                                deleteSource(task);
+                            }
+                            return copied
+                                    ? CopyObjectResultDto.copied(sourceKey, targetKey)
+                                    : CopyObjectResultDto.skipped(sourceKey, targetKey);
+                        }, this.transferExecutor)
+                        .exceptionally(ex -> failed(task, ex))
+                        .thenAccept(result -> {
+                            try {
+                                listener.accept(result);
+                            } finally {
+                                objectsInFlight.release();
+                            }
+                        });
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Copy from bucket='%s' to bucket='%s' was interrupted".formatted(sourceBucketName, targetBucketName), ex);
+        } finally {
+            S3Utils.awaitCompletion(objectsInFlight, parallelism);
+        }
+    }
+
+    /**
+     * @return the source object, or {@code null} when it has been copied already
+     */
+    private HeadObjectResponse prepare(final CopyTask task, final boolean skipExisting) {
+        HeadObjectResponse source = head(task.sourceBucketName(), task.sourceKey());
+        if (skipExisting && isCopied(source, task)) {
+            log.debug("Skipping object={} of bucket={}, it's already copied to bucket={}", task.sourceKey(), task.sourceBucketName(), task.targetBucketName());
+            return null;
+        }
+        return source;
+    }
+
+    /**
+     * Same rule as {@code aws s3 sync}: the target counts as a copy when it has the same size and isn't older.
+     */
+    private boolean isCopied(final HeadObjectResponse source, final CopyTask task) {
+        try {
+            HeadObjectResponse target = head(task.targetBucketName(), task.targetKey());
+            return target.contentLength().equals(source.contentLength()) && !target.lastModified().isBefore(source.lastModified());
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == HttpStatusCode.NOT_FOUND) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    private CompletableFuture<Boolean> copyObject(final CopyTask task, final HeadObjectResponse source) {
+        if (source.contentLength() <= this.transferProperties.getCopyMultipartThreshold().toBytes()) {
+            return CompletableFuture.supplyAsync(() -> {
+                this.s3Client.copyObject(
+                        CopyObjectRequest.builder()
+                                .sourceBucket(task.sourceBucketName())
+                                .sourceKey(task.sourceKey())
+                                .copySourceIfMatch(source.eTag())
+                                .destinationBucket(task.targetBucketName())
+                                .destinationKey(task.targetKey())
+                                .build()
+                );
+                return true;
+            }, this.transferExecutor);
+        }
+        return CompletableFuture.supplyAsync(() -> createMultipartUpload(task, source), this.transferExecutor)
+                .thenCompose(uploadId -> copyParts(task, source, uploadId))
+                .thenApply(completed -> true);
+    }
+
+    /**
+     * {@code CreateMultipartUpload} doesn't carry anything over from the source, unlike {@code CopyObject},
+     * so the headers, user metadata and tags are copied explicitly.
+     */
+    private String createMultipartUpload(final CopyTask task, final HeadObjectResponse source) {
+        Tagging tagging = Tagging.builder()
+                .tagSet(
+                        this.s3Client.getObjectTagging(
+                                GetObjectTaggingRequest.builder()
+                                        .bucket(task.sourceBucketName())
+                                        .key(task.sourceKey())
+                                        .build()
+                        ).tagSet()
+                )
+                .build();
+        return this.s3Client.createMultipartUpload(
+                CreateMultipartUploadRequest.builder()
+                        .bucket(task.targetBucketName())
+                        .key(task.targetKey())
+                        .contentType(source.contentType())
+                        .contentEncoding(source.contentEncoding())
+                        .contentDisposition(source.contentDisposition())
+                        .contentLanguage(source.contentLanguage())
+                        .cacheControl(source.cacheControl())
+                        .metadata(source.metadata())
+                        .tagging(tagging)
+                        .build()
+        ).uploadId();
+    }
+
+    private CompletableFuture<Void> copyParts(final CopyTask task, final HeadObjectResponse source, final String uploadId) {
+        long contentLength = source.contentLength();
+        long partSize = Math.max(this.transferProperties.getCopyPartSize().toBytes(), (contentLength + MAX_PARTS - 1) / MAX_PARTS);
+        CompletedPart[] parts = new CompletedPart[(int) ((contentLength + partSize - 1) / partSize)];
+        AtomicInteger nextPart = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(this.transferProperties.getCopyPartParallelism(), parts.length)];
+        Arrays.setAll(lanes, lane -> copyNextPart(task, source, uploadId, partSize, parts, nextPart, failed));
+        return CompletableFuture.allOf(lanes)
+                .thenRunAsync(() -> {
+                    this.s3Client.completeMultipartUpload(
+                            CompleteMultipartUploadRequest.builder()
+                                    .bucket(task.targetBucketName())
+                                    .key(task.targetKey())
+                                    .uploadId(uploadId)
+                                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                                    .build()
+                    );
+                    log.info("Copied object={} of bucket={} to object={} of bucket={} in {} parts",
+                            task.sourceKey(), task.sourceBucketName(), task.targetKey(), task.targetBucketName(), parts.length);
+                }, this.transferExecutor)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        abort(task, uploadId);
+                    }
+                });
+    }
+
+    /**
+     * A lane copies one part after the other until no part is left, so the lanes bound the parts in flight
+     * without anyone waiting for them.
+     */
+    private CompletableFuture<Void> copyNextPart(final CopyTask task,
+                                                 final HeadObjectResponse source,
+                                                 final String uploadId,
+                                                 final long partSize,
+                                                 final CompletedPart[] parts,
+                                                 final AtomicInteger nextPart,
+                                                 final AtomicBoolean failed) {
+        int index = nextPart.getAndIncrement();
+        if (index >= parts.length || failed.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = index * partSize;
+        long end = Math.min(start + partSize, source.contentLength()) - 1;
+        return CompletableFuture.runAsync(() -> {
+                    String eTag = this.s3Client.uploadPartCopy(
+                            UploadPartCopyRequest.builder()
+                                    .sourceBucket(task.sourceBucketName())
+                                    .sourceKey(task.sourceKey())
+                                    .copySourceIfMatch(source.eTag())
+                                    .copySourceRange("bytes=%d-%d".formatted(start, end))
+                                    .destinationBucket(task.targetBucketName())
+                                    .destinationKey(task.targetKey())
+                                    .uploadId(uploadId)
+                                    .partNumber(index + 1)
+                                    .build()
+                    ).copyPartResult().eTag();
+                    parts[index] = CompletedPart.builder().partNumber(index + 1).eTag(eTag).build();
+                }, this.transferExecutor)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        failed.set(true);
+                    }
+                })
+                .thenCompose(result -> copyNextPart(task, source, uploadId, partSize, parts, nextPart, failed));
+    }
+
+    private void deleteSource(final CopyTask task) {
+        this.s3Client.deleteObject(
+                DeleteObjectRequest.builder()
+                        .bucket(task.sourceBucketName())
+                        .key(task.sourceKey())
+                        .build()
+        );
+    }
+
+    private HeadObjectResponse head(final String bucketName, final String objectKey) {
+        return this.s3Client.headObject(
+                HeadObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .build()
+        );
+    }
+
+    private void abort(final CopyTask task, final String uploadId) {
+        try {
+            this.s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder()
+                            .bucket(task.targetBucketName())
+                            .key(task.targetKey())
+                            .uploadId(uploadId)
+                            .build()
+            );
+        } catch (Exception ex) {
+            log.error("Cannot abort multipart copy to object={} of bucket={}, uploadId={}", task.targetKey(), task.targetBucketName(), uploadId, ex);
+        }
+    }
+
+    private static CopyObjectResultDto failed(final CopyTask task, final Throwable throwable) {
+        Throwable ex = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        log.warn("Cannot copy object={} of bucket={} to object={} of bucket={}",
+                task.sourceKey(), task.sourceBucketName(), task.targetKey(), task.targetBucketName(), ex);
+        String errorCode = ex instanceof S3Exception s3Exception && s3Exception.awsErrorDetails() != null
+                ? s3Exception.awsErrorDetails().errorCode()
+                : ex.getClass().getSimpleName();
+        return CopyObjectResultDto.failed(task.sourceKey(), task.targetKey(), errorCode, ex.getMessage());
+    }
+
+    private record CopyTask(String sourceBucketName, String sourceKey, String targetBucketName, String targetKey) {
+    }
+}
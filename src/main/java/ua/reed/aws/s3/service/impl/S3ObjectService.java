@@ -1,63 +1,129 @@
 package ua.reed.aws.s3.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
 import software.amazon.awssdk.http.HttpExecuteRequest;
 import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.HttpStatusCode;
 import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.SdkHttpMethod;
 import software.amazon.awssdk.http.SdkHttpRequest;
 import software.amazon.awssdk.http.SdkHttpResponse;
-import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.metrics.MetricCollector;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectTaggingRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.Tag;
 import software.amazon.awssdk.services.s3.model.Tagging;
+import ua.reed.aws.s3.cache.ObjectMetadataCache;
+import ua.reed.aws.s3.config.HttpClientConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
 import ua.reed.aws.s3.dto.AddTagsRequestDto;
+import ua.reed.aws.s3.dto.ArchiveRequestDto;
+import ua.reed.aws.s3.dto.BatchDeleteRequestDto;
+import ua.reed.aws.s3.dto.BatchDeleteResponseDto;
+import ua.reed.aws.s3.dto.BulkTagRequestDto;
+import ua.reed.aws.s3.dto.BulkTagResponseDto;
+import ua.reed.aws.s3.dto.CopyObjectResultDto;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
+import ua.reed.aws.s3.dto.CopyObjectsResponseDto;
 import ua.reed.aws.s3.dto.CustomTagDto;
 import ua.reed.aws.s3.dto.ObjectInfoDto;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
+import ua.reed.aws.s3.dto.ObjectSummaryDto;
+import ua.reed.aws.s3.enums.ArchiveFormat;
+import ua.reed.aws.s3.enums.CopyStatus;
 import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
+import ua.reed.aws.s3.exception.ObjectNotModifiedException;
+import ua.reed.aws.s3.metrics.HttpConnectionPoolMetrics;
 import ua.reed.aws.s3.service.ObjectService;
 import ua.reed.aws.s3.service.PreSignedUrlService;
+import ua.reed.aws.s3.service.model.BulkOperationCounts;
+import ua.reed.aws.s3.service.model.BulkOperationOptions;
+import ua.reed.aws.s3.service.model.GetObjectOptions;
+import ua.reed.aws.s3.service.model.ListObjectsOptions;
 import ua.reed.aws.s3.service.model.PreSignedUrlOptions;
 import ua.reed.aws.s3.utils.S3Utils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class S3ObjectService implements ObjectService {
 
+    private static final int MAX_KEYS_PER_PAGE = 1000;
+    private static final String CONTENT_MD5 = "Content-MD5";
+    private static final long BULK_PROGRESS_INTERVAL = 1000;
+
     private final S3Client s3Client;
     private final PreSignedUrlService preSignedUrlService;
+    private final S3MultipartUploader multipartUploader;
+    private final S3RangedDownloader rangedDownloader;
+    private final S3BatchDeleter batchDeleter;
+    private final S3BulkTagger bulkTagger;
+    private final S3ArchiveWriter archiveWriter;
+    private final S3ObjectCopier objectCopier;
+    private final ObjectMetadataCache objectMetadataCache;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(HttpClientConfig.PRE_SIGNED_URL_HTTP_CLIENT)
+    private final SdkHttpClient preSignedUrlHttpClient;
+    private final HttpConnectionPoolMetrics preSignedUrlHttpClientMetrics;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public void createObject(final String bucketName, final String objectKey, final MultipartFile multipartFile) {
         S3Utils.validateBucketName(bucketName);
         S3Utils.validateObjectKey(objectKey);
-        try {
-            this.s3Client.putObject(
-                    PutObjectRequest.builder()
-                            .key(objectKey)
-                            .bucket(bucketName)
-                            .build(),
-                    RequestBody.fromBytes(multipartFile.getBytes())
-            );
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            if (multipartFile.getSize() < this.transferProperties.getMultipartThreshold().toBytes()) {
+                this.s3Client.putObject(
+                        PutObjectRequest.builder()
+                                .key(objectKey)
+                                .bucket(bucketName)
+                                .build(),
+                        RequestBody.fromInputStream(inputStream, multipartFile.getSize())
+                );
+            } else {
+                this.multipartUploader.upload(bucketName, objectKey, inputStream);
+            }
+            this.objectMetadataCache.invalidate(bucketName, objectKey);
             log.info("File '{}' successfully uploaded to S3 bucket {}", multipartFile.getOriginalFilename(), bucketName);
         } catch (IOException ex) {
             throw new RuntimeException("Cannot upload a file '%s' to S3 bucket '%s'".formatted(multipartFile.getOriginalFilename(), bucketName), ex);
@@ -65,39 +131,49 @@ public class S3ObjectService implements ObjectService {
     }
 
     /**
-     * This one doesn't work, returns "Cannot upload file. Status: 403, details: Forbidden"
+     * The upload is spooled to a temp file once, computing its MD5 on the way, and then streamed from the file.
+     * The MD5 is signed into the url, so it has to be sent as {@code Content-MD5} along with the body.
      */
     @Override
     public void createObjectByPreSignedUrl(final String bucketName, final String objectKey, final MultipartFile multipartFile) {
         S3Utils.validateBucketName(bucketName);
         S3Utils.validateObjectKey(objectKey);
-        URL preSignedUrl = this.preSignedUrlService.generatePreSignedUrlForObject(
-                PreSignedUrlOptions.builder()
-                        .objectKey(objectKey)
-                        .bucketName(bucketName)
-                        .operationType(PreSignedUrlOperationType.PUT_OBJECT)
-                        .multipartFile(multipartFile)
-                        .build()
-        );
-        try (SdkHttpClient httpClient = ApacheHttpClient.create()) {
-            HttpExecuteRequest request = HttpExecuteRequest.builder()
-                    .request(
-                            SdkHttpRequest.builder()
-                                    .method(SdkHttpMethod.PUT)
-                                    .uri(preSignedUrl.toURI())
-                                    .build()
-                    )
-                    .contentStreamProvider(RequestBody.fromBytes(multipartFile.getBytes()).contentStreamProvider())
-                    .build();
-            HttpExecuteResponse response = httpClient.prepareRequest(request).call();
+        Path spooledFile = null;
+        try {
+            spooledFile = Files.createTempFile("pre-signed-upload-", ".tmp");
+            String contentMd5 = spool(multipartFile, spooledFile);
+            URL preSignedUrl = this.preSignedUrlService.generatePreSignedUrlForObject(
+                    PreSignedUrlOptions.builder()
+                            .objectKey(objectKey)
+                            .bucketName(bucketName)
+                            .operationType(PreSignedUrlOperationType.PUT_OBJECT)
+                            .contentMd5(contentMd5)
+                            .build()
+            );
+            HttpExecuteResponse response = executePreSignedUrlRequest(
+                    HttpExecuteRequest.builder()
+                            .request(
+                                    SdkHttpRequest.builder()
+                                            .method(SdkHttpMethod.PUT)
+                                            .uri(preSignedUrl.toURI())
+                                            .putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(Files.size(spooledFile)))
+                                            .putHeader(CONTENT_MD5, contentMd5)
+                                            .build()
+                            )
+                            .contentStreamProvider(RequestBody.fromFile(spooledFile).contentStreamProvider())
+            );
+            releaseConnection(response);
             SdkHttpResponse sdkHttpResponse = response.httpResponse();
             if (sdkHttpResponse.statusCode() == 200) {
+                this.objectMetadataCache.invalidate(bucketName, objectKey);
                 log.info("Successfully created object with key={}, bucket={}", objectKey, bucketName);
             } else {
                 log.error("Cannot upload file. Status: {}, details: {}", sdkHttpResponse.statusCode(), sdkHttpResponse.statusText().get());
             }
         } catch (URISyntaxException | IOException ex) {
             throw new RuntimeException("Cannot create object with key='%s' in bucket='%s'".formatted(objectKey, bucketName), ex);
+        } finally {
+            deleteSpooledFile(spooledFile);
         }
     }
 
@@ -112,13 +188,7 @@ public class S3ObjectService implements ObjectService {
             log.warn("Received empty tags for bucket={}, objectKey={}, operation will be skipped", bucketName, objectKey);
         } else {
             try {
-                List<Tag> targetCompatibleTags = tags.stream()
-                        .map(t -> Tag.builder()
-                                .key(t.key())
-                                .value(t.value())
-                                .build()
-                        )
-                        .toList();
+                List<Tag> targetCompatibleTags = toTags(tags);
                 this.s3Client.putObjectTagging(
                         PutObjectTaggingRequest.builder()
                                 .bucket(bucketName)
@@ -126,6 +196,7 @@ public class S3ObjectService implements ObjectService {
                                 .tagging(Tagging.builder().tagSet(targetCompatibleTags).build())
                                 .build()
                 );
+                this.objectMetadataCache.invalidate(bucketName, objectKey);
                 log.info("Added tags for object={}, bucket={}", objectKey, bucketName);
             } catch (Exception ex) {
                 throw new RuntimeException("Failed to add tags for objectKey='%s', bucket='%s'".formatted(objectKey, bucketName), ex);
@@ -134,21 +205,229 @@ public class S3ObjectService implements ObjectService {
     }
 
     @Override
-    public ResponseBytes<GetObjectResponse> getObject(final String bucketName, final String objectKey) {
+    public BulkTagResponseDto addTags(final BulkTagRequestDto request) {
+        Queue<ObjectOperationResultDto> failures = new ConcurrentLinkedQueue<>();
+        BulkOperationCounts counts = addTags(
+                request,
+                BulkOperationOptions.<ObjectOperationResultDto>builder()
+                        .onResult(result -> {
+                            if (!result.success()) {
+                                failures.add(result);
+                            }
+                        })
+                        .build()
+        );
+        return BulkTagResponseDto.of(request.bucketName(), counts.succeeded(), List.copyOf(failures));
+    }
+
+    @Override
+    public BulkOperationCounts addTags(final BulkTagRequestDto request, final BulkOperationOptions<ObjectOperationResultDto> options) {
+        String bucketName = request.bucketName();
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectSelection(request.objectKeys(), request.prefix());
+        if (request.tags() == null || request.tags().isEmpty()) {
+            throw new IllegalArgumentException("Parameter [tags] must not be null or empty!");
+        }
+        try {
+            AtomicLong processed = new AtomicLong();
+            AtomicLong tagged = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            this.bulkTagger.tag(
+                    bucketName,
+                    selectObjectKeys(bucketName, request.objectKeys(), request.prefix(), options).iterator(),
+                    toTags(request.tags()),
+                    request.merge(),
+                    result -> {
+                        if (result.success()) {
+                            tagged.incrementAndGet();
+                            this.objectMetadataCache.invalidate(bucketName, result.objectKey());
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        long count = processed.incrementAndGet();
+                        if (count % BULK_PROGRESS_INTERVAL == 0) {
+                            log.info("Bulk tagging in bucket={}: {} objects processed", bucketName, count);
+                        }
+                        report(options, result);
+                    }
+            );
+            log.info("Bulk tagging in bucket={}: {} tagged, {} failed", bucketName, tagged.get(), failed.get());
+            return new BulkOperationCounts(tagged.get(), 0, failed.get());
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot tag objects in bucket='%s'".formatted(bucketName), ex);
+        }
+    }
+
+    @Override
+    public void writeArchive(final ArchiveRequestDto request, final OutputStream outputStream) {
+        String bucketName = request.bucketName();
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectSelection(request.objectKeys(), request.prefix());
+        ArchiveFormat format = request.format() == null ? ArchiveFormat.ZIP : request.format();
+        try (Stream<String> objectKeys = selectObjectKeys(bucketName, request.objectKeys(), request.prefix())) {
+            this.archiveWriter.write(bucketName, objectKeys.iterator(), format, outputStream);
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot archive objects of bucket='%s'".formatted(bucketName), ex);
+        }
+    }
+
+    @Override
+    public CopyObjectsResponseDto copyObjects(final CopyObjectsRequestDto request) {
+        return collectCopies(request, false);
+    }
+
+    @Override
+    public BulkOperationCounts copyObjects(final CopyObjectsRequestDto request, final BulkOperationOptions<CopyObjectResultDto> options) {
+        return copyObjects(request, false, options);
+    }
+
+    @Override
+    public CopyObjectsResponseDto moveObjects(final CopyObjectsRequestDto request) {
+        return collectCopies(request, true);
+    }
+
+    @Override
+    public BulkOperationCounts moveObjects(final CopyObjectsRequestDto request, final BulkOperationOptions<CopyObjectResultDto> options) {
+        return copyObjects(request, true, options);
+    }
+
+    private CopyObjectsResponseDto collectCopies(final CopyObjectsRequestDto request, final boolean move) {
+        Queue<CopyObjectResultDto> failures = new ConcurrentLinkedQueue<>();
+        BulkOperationCounts counts = copyObjects(
+                request,
+                move,
+                BulkOperationOptions.<CopyObjectResultDto>builder()
+                        .onResult(result -> {
+                            if (result.status() == CopyStatus.FAILED) {
+                                failures.add(result);
+                            }
+                        })
+                        .build()
+        );
+        return CopyObjectsResponseDto.of(
+                request.sourceBucketName(), request.targetBucketName(), move, counts.succeeded(), counts.skipped(), List.copyOf(failures)
+        );
+    }
+
+    private BulkOperationCounts copyObjects(final CopyObjectsRequestDto request,
+                                            final boolean move,
+                                            final BulkOperationOptions<CopyObjectResultDto> options) {
+        S3Utils.validateCopyRequest(request);
+        String sourceBucketName = request.sourceBucketName();
+        String targetBucketName = request.targetBucketName();
+        String sourcePrefix = request.objectKeys() == null || request.objectKeys().isEmpty() ? request.prefix() : "";
+        String targetPrefix = request.targetPrefix() == null ? "" : request.targetPrefix();
+        String operation = move ? "move" : "copy";
+        try (Stream<String> objectKeys = selectObjectKeys(sourceBucketName, request.objectKeys(), request.prefix(), options)) {
+            AtomicLong processed = new AtomicLong();
+            AtomicLong copied = new AtomicLong();
+            AtomicLong skipped = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            this.objectCopier.copy(
+                    sourceBucketName,
+                    objectKeys.iterator(),
+                    targetBucketName,
+                    sourceKey -> targetPrefix.concat(sourceKey.substring(sourcePrefix.length())),
+                    move,
+                    request.skipExisting(),
+                    result -> {
+                        switch (result.status()) {
+                            case COPIED -> {
+                                copied.incrementAndGet();
+                                this.objectMetadataCache.invalidate(targetBucketName, result.targetKey());
+                            }
+                            case SKIPPED -> skipped.incrementAndGet();
+                            case FAILED -> failed.incrementAndGet();
+                        }
+                        if (move && result.status() != CopyStatus.FAILED) {
+                            this.objectMetadataCache.invalidate(sourceBucketName, result.sourceKey());
+                        }
+                        long count = processed.incrementAndGet();
+                        if (count % BULK_PROGRESS_INTERVAL == 0) {
+                            log.info("Bulk {} from bucket={} to bucket={}: {} objects processed", operation, sourceBucketName, targetBucketName, count);
+                        }
+                        report(options, result);
+                    }
+            );
+            log.info(
+                    "Bulk {} from bucket={} to bucket={}: {} copied, {} skipped, {} failed",
+                    operation,
+                    sourceBucketName,
+                    targetBucketName,
+                    copied.get(),
+                    skipped.get(),
+                    failed.get()
+            );
+            return new BulkOperationCounts(copied.get(), skipped.get(), failed.get());
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot %s objects from bucket='%s' to bucket='%s'".formatted(operation, sourceBucketName, targetBucketName), ex);
+        }
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(final String bucketName, final String objectKey) {
+        return getObject(
+                GetObjectOptions.builder()
+                        .bucketName(bucketName)
+                        .objectKey(objectKey)
+                        .build()
+        );
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(final GetObjectOptions options) {
+        String bucketName = options.getBucketName();
         S3Utils.validateBucketName(bucketName);
+        String objectKey = options.getObjectKey();
         S3Utils.validateObjectKey(objectKey);
         try {
-            return this.s3Client.getObjectAsBytes(
+            ResponseInputStream<GetObjectResponse> objectStream = this.s3Client.getObject(
                     GetObjectRequest.builder()
                             .bucket(bucketName)
                             .key(objectKey)
+                            .range(options.getRange())
+                            .ifNoneMatch(options.getIfNoneMatch())
+                            .ifModifiedSince(options.getIfNoneMatch() == null ? options.getIfModifiedSince() : null)
                             .build()
             );
+            this.objectMetadataCache.invalidateIfChanged(bucketName, objectKey, objectStream.response().eTag());
+            return objectStream;
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+                String eTag = ex.awsErrorDetails() == null
+                        ? null
+                        : ex.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(HttpHeaders.ETAG).orElse(null);
+                throw new ObjectNotModifiedException(bucketName, objectKey, eTag, ex);
+            }
+            throw new RuntimeException("Cannot download object by key='%s' from bucket='%s'".formatted(objectKey, bucketName), ex);
         } catch (Exception ex) {
             throw new RuntimeException("Cannot download object by key='%s' from bucket='%s'".formatted(objectKey, bucketName), ex);
         }
     }
 
+    @Override
+    public void downloadObjectInParallel(final String bucketName, final ObjectInfoDto objectInfo, final OutputStream outputStream) {
+        S3Utils.validateBucketName(bucketName);
+        try {
+            this.rangedDownloader.download(bucketName, objectInfo, outputStream);
+        } catch (Exception ex) {
+            // the ranges are requested with If-Match on the ETag, a cached HEAD result may be outdated
+            this.objectMetadataCache.invalidate(bucketName, objectInfo.objectKey());
+            throw new RuntimeException("Cannot download object by key='%s' from bucket='%s'".formatted(objectInfo.objectKey(), bucketName), ex);
+        }
+    }
+
+    @Override
+    public void downloadObjectInParallel(final String bucketName, final String objectKey, final Path target) {
+        ObjectInfoDto objectInfo = getObjectInfo(bucketName, objectKey);
+        try {
+            this.rangedDownloader.download(bucketName, objectInfo, target);
+        } catch (Exception ex) {
+            this.objectMetadataCache.invalidate(bucketName, objectKey);
+            throw new RuntimeException("Cannot download object by key='%s' from bucket='%s' to '%s'".formatted(objectKey, bucketName, target), ex);
+        }
+    }
+
     @Override
     public byte[] getObjectFromPreSignedUrl(final String bucketName, final String objectKey) {
         S3Utils.validateBucketName(bucketName);
@@ -160,28 +439,23 @@ public class S3ObjectService implements ObjectService {
                         .operationType(PreSignedUrlOperationType.GET_OBJECT)
                         .build()
         );
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (SdkHttpClient httpClient = ApacheHttpClient.create()) {
-            HttpExecuteRequest request = HttpExecuteRequest.builder()
-                    .request(
-                            SdkHttpRequest.builder()
-                                    .method(SdkHttpMethod.GET)
-                                    .uri(preSignedUrl.toURI())
-                                    .build()
-                    )
-                    .build();
-            HttpExecuteResponse response = httpClient.prepareRequest(request).call();
-            response.responseBody()
-                    .ifPresentOrElse(abortableInputStream -> {
-                                try {
-                                    baos.writeBytes(abortableInputStream.readAllBytes());
-                                } catch (IOException ex) {
-                                    throw new RuntimeException("Cannot copy a file", ex);
-                                }
-                            },
-                            () -> log.error("Cannot download a file as no response body is received.")
-                    );
-            return baos.toByteArray();
+        try {
+            HttpExecuteResponse response = executePreSignedUrlRequest(
+                    HttpExecuteRequest.builder()
+                            .request(
+                                    SdkHttpRequest.builder()
+                                            .method(SdkHttpMethod.GET)
+                                            .uri(preSignedUrl.toURI())
+                                            .build()
+                            )
+            );
+            if (response.responseBody().isEmpty()) {
+                log.error("Cannot download a file as no response body is received.");
+                return new byte[0];
+            }
+            try (AbortableInputStream body = response.responseBody().get()) {
+                return body.readAllBytes();
+            }
         } catch (URISyntaxException | IOException ex) {
             throw new RuntimeException("Cannot download a file by pre-signed url", ex);
         }
@@ -198,12 +472,43 @@ public class S3ObjectService implements ObjectService {
                             .bucket(bucketName)
                             .build()
             );
+            this.objectMetadataCache.invalidate(bucketName, objectKey);
             log.info("Object={} was deleted from bucket={}", objectKey, bucketName);
         } catch (Exception ex) {
             throw new RuntimeException("Cannot delete object='%s' from bucket='%s'".formatted(objectKey, bucketName));
         }
     }
 
+    @Override
+    public BatchDeleteResponseDto deleteObjects(final BatchDeleteRequestDto request) {
+        Queue<ObjectOperationResultDto> results = new ConcurrentLinkedQueue<>();
+        deleteObjects(request, BulkOperationOptions.<ObjectOperationResultDto>builder().onResult(results::add).build());
+        return BatchDeleteResponseDto.of(request.bucketName(), List.copyOf(results));
+    }
+
+    @Override
+    public BulkOperationCounts deleteObjects(final BatchDeleteRequestDto request, final BulkOperationOptions<ObjectOperationResultDto> options) {
+        String bucketName = request.bucketName();
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectSelection(request.objectKeys(), request.prefix());
+        try {
+            Iterator<ObjectIdentifier> objects = selectObjectKeys(bucketName, request.objectKeys(), request.prefix(), options)
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .iterator();
+            AtomicLong deleted = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            this.batchDeleter.deleteAll(bucketName, objects, result -> {
+                (result.success() ? deleted : failed).incrementAndGet();
+                this.objectMetadataCache.invalidate(bucketName, result.objectKey());
+                report(options, result);
+            });
+            log.info("Batch delete in bucket={}: {} deleted, {} failed", bucketName, deleted.get(), failed.get());
+            return new BulkOperationCounts(deleted.get(), 0, failed.get());
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot delete objects from bucket='%s'".formatted(bucketName), ex);
+        }
+    }
+
     @Override
     public void deleteObjectByPreSignedUrl(final String bucketName, final String objectKey) {
         S3Utils.validateBucketName(bucketName);
@@ -215,18 +520,19 @@ public class S3ObjectService implements ObjectService {
                         .operationType(PreSignedUrlOperationType.DELETE_OBJECT)
                         .build()
         );
-        try (SdkHttpClient httpClient = ApacheHttpClient.create()) {
-            HttpExecuteRequest request = HttpExecuteRequest.builder()
-                    .request(
-                            SdkHttpRequest.builder()
-                                    .method(SdkHttpMethod.DELETE)
-                                    .uri(preSignedUrl.toURI())
-                                    .build()
-                    )
-                    .build();
-            HttpExecuteResponse response = httpClient.prepareRequest(request).call();
-            response.responseBody()
-                    .ifPresent(abortableInputStream -> log.info("Object={} successfully deleted from bucket={} by pre-signed url", objectKey, bucketName));
+        try {
+            HttpExecuteResponse response = executePreSignedUrlRequest(
+                    HttpExecuteRequest.builder()
+                            .request(
+                                    SdkHttpRequest.builder()
+                                            .method(SdkHttpMethod.DELETE)
+                                            .uri(preSignedUrl.toURI())
+                                            .build()
+                            )
+            );
+            releaseConnection(response);
+            this.objectMetadataCache.invalidate(bucketName, objectKey);
+            log.info("Object={} successfully deleted from bucket={} by pre-signed url", objectKey, bucketName);
         } catch (URISyntaxException | IOException ex) {
             throw new RuntimeException("Cannot delete object='%s' from bucket='%s' by pre-signed url".formatted(objectKey, bucketName), ex);
         }
@@ -236,6 +542,69 @@ public class S3ObjectService implements ObjectService {
     public ObjectInfoDto getObjectInfo(final String bucketName, final String objectKey) {
         S3Utils.validateBucketName(bucketName);
         S3Utils.validateObjectKey(objectKey);
+        Optional<ObjectInfoDto> objectInfo;
+        try {
+            objectInfo = this.objectMetadataCache.get(bucketName, objectKey, key -> headObject(bucketName, objectKey));
+        } catch (Exception ex) {
+            throw new RuntimeException("Cannot get info for objectKey='%s' from bucket='%s'".formatted(objectKey, bucketName), ex);
+        }
+        return objectInfo.orElseThrow(() -> new RuntimeException(
+                "Cannot get info for objectKey='%s' from bucket='%s'".formatted(objectKey, bucketName),
+                new NoSuchElementException("Object doesn't exist")
+        ));
+    }
+
+    /**
+     * The listing is lazy: a page is requested from S3 only when the previous one is consumed, so listing errors
+     * are thrown by the stream while it is consumed.
+     */
+    @Override
+    public Stream<ObjectSummaryDto> listObjects(final ListObjectsOptions options) {
+        String bucketName = options.getBucketName();
+        S3Utils.validateBucketName(bucketName);
+        Integer maxKeys = options.getMaxKeys();
+        if (maxKeys != null && maxKeys < 0) {
+            throw new IllegalArgumentException("Parameter [maxKeys] must not be negative!");
+        }
+        if (maxKeys != null && maxKeys == 0) {
+            return Stream.empty();
+        }
+        Stream<ObjectSummaryDto> objects = this.s3Client.listObjectsV2Paginator(
+                        ListObjectsV2Request.builder()
+                                .bucket(bucketName)
+                                .prefix(options.getPrefix())
+                                .delimiter(options.getDelimiter())
+                                .startAfter(options.getStartAfter())
+                                .maxKeys(maxKeys == null ? null : Math.min(maxKeys, MAX_KEYS_PER_PAGE))
+                                .build()
+                )
+                .stream()
+                .flatMap(page -> Stream.concat(
+                        page.contents()
+                                .stream()
+                                .map(object -> ObjectSummaryDto.builder()
+                                        .objectKey(object.key())
+                                        .size(object.size())
+                                        .eTag(object.eTag())
+                                        .lastModified(object.lastModified())
+                                        .storageClass(object.storageClassAsString())
+                                        .build()
+                                ),
+                        page.commonPrefixes()
+                                .stream()
+                                .map(commonPrefix -> ObjectSummaryDto.builder()
+                                        .objectKey(commonPrefix.prefix())
+                                        .commonPrefix(true)
+                                        .build()
+                                )
+                ));
+        return maxKeys == null ? objects : objects.limit(maxKeys);
+    }
+
+    /**
+     * @return an empty value when the object doesn't exist, so the miss can be cached as well
+     */
+    private Optional<ObjectInfoDto> headObject(final String bucketName, final String objectKey) {
         try {
             HeadObjectResponse response = this.s3Client.headObject(
                     HeadObjectRequest.builder()
@@ -243,16 +612,130 @@ public class S3ObjectService implements ObjectService {
                             .bucket(bucketName)
                             .build()
             );
-            return ObjectInfoDto.builder()
-                    .objectKey(objectKey)
-                    .contentType(response.contentType())
-                    .contentLength(response.contentLength())
-                    .eTag(response.eTag())
-                    .expiration(response.expiration())
-                    .expires(response.expires())
-                    .build();
-        } catch (Exception ex) {
-            throw new RuntimeException("Cannot get info for objectKey='%s' from bucket='%s'".formatted(objectKey, bucketName), ex);
+            return Optional.of(
+                    ObjectInfoDto.builder()
+                            .objectKey(objectKey)
+                            .contentType(response.contentType())
+                            .contentLength(response.contentLength())
+                            .eTag(response.eTag())
+                            .lastModified(response.lastModified())
+                            .expiration(response.expiration())
+                            .expires(response.expires())
+                            .build()
+            );
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == HttpStatusCode.NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw ex;
+        }
+    }
+
+    private List<Tag> toTags(final List<CustomTagDto> tags) {
+        return tags.stream()
+                .map(t -> Tag.builder()
+                        .key(t.key())
+                        .value(t.value())
+                        .build()
+                )
+                .toList();
+    }
+
+    /**
+     * Keys given explicitly win over the prefix, a prefix is listed lazily page by page.
+     */
+    private Stream<String> selectObjectKeys(final String bucketName, final List<String> objectKeys, final String prefix) {
+        return selectObjectKeys(bucketName, objectKeys, prefix, BulkOperationOptions.none());
+    }
+
+    private Stream<String> selectObjectKeys(final String bucketName,
+                                            final List<String> objectKeys,
+                                            final String prefix,
+                                            final BulkOperationOptions<?> options) {
+        String startAfter = options.getStartAfter();
+        Stream<String> keys;
+        if (objectKeys != null && !objectKeys.isEmpty()) {
+            keys = objectKeys.stream().distinct();
+            if (startAfter != null) {
+                keys = keys.dropWhile(key -> !key.equals(startAfter)).skip(1);
+            }
+        } else {
+            keys = listObjects(
+                    ListObjectsOptions.builder()
+                            .bucketName(bucketName)
+                            .prefix(prefix)
+                            .startAfter(startAfter)
+                            .build()
+            ).map(ObjectSummaryDto::objectKey);
+        }
+        return options.getOnSelected() == null ? keys : S3Utils.takeWhileConsumed(keys, options.getOnSelected());
+    }
+
+    private static <R> void report(final BulkOperationOptions<R> options, final R result) {
+        if (options.getOnResult() != null) {
+            options.getOnResult().accept(result);
+        }
+    }
+
+    private HttpExecuteResponse executePreSignedUrlRequest(final HttpExecuteRequest.Builder requestBuilder) throws IOException {
+        MetricCollector metricCollector = this.preSignedUrlHttpClientMetrics.newCollector();
+        HttpExecuteRequest request = requestBuilder.metricCollector(metricCollector).build();
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        String status = "none";
+        try {
+            HttpExecuteResponse response = this.preSignedUrlHttpClient.prepareRequest(request).call();
+            status = String.valueOf(response.httpResponse().statusCode());
+            return response;
+        } finally {
+            this.preSignedUrlHttpClientMetrics.record(metricCollector);
+            sample.stop(
+                    Timer.builder("s3.pre.signed.url.requests")
+                            .description("Duration of requests sent to pre-signed urls, up to the response headers")
+                            .tag("method", request.httpRequest().method().name())
+                            .tag("status", status)
+                            .publishPercentileHistogram()
+                            .register(this.meterRegistry)
+            );
+        }
+    }
+
+    /**
+     * Copies the upload to the given file in a single pass, digesting it on the way.
+     *
+     * @return base64 encoded MD5 of the content
+     */
+    private String spool(final MultipartFile multipartFile, final Path target) throws IOException {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 is not supported by the JVM", ex);
+        }
+        int bufferSize = (int) this.transferProperties.getDownloadBufferSize().toBytes();
+        try (InputStream inputStream = new DigestInputStream(multipartFile.getInputStream(), md5);
+             OutputStream outputStream = Files.newOutputStream(target)) {
+            S3Utils.copy(inputStream, outputStream, bufferSize);
+        }
+        return Base64.getEncoder().encodeToString(md5.digest());
+    }
+
+    private void deleteSpooledFile(final Path spooledFile) {
+        if (spooledFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spooledFile);
+        } catch (IOException ex) {
+            log.warn("Cannot delete spooled upload {}", spooledFile, ex);
+        }
+    }
+
+    /**
+     * The connection goes back to the shared pool only once the response body is closed.
+     */
+    private void releaseConnection(final HttpExecuteResponse response) throws IOException {
+        if (response.responseBody().isPresent()) {
+            response.responseBody().get().close();
         }
     }
 }
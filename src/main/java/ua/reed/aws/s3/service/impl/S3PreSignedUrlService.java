@@ -1,25 +1,38 @@
 package ua.reed.aws.s3.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.awscore.presigner.PresignedRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedDeleteObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import ua.reed.aws.s3.cache.PreSignedUrlCache;
+import ua.reed.aws.s3.config.PreSignedUrlProperties;
+import ua.reed.aws.s3.dto.PreSignedPartUrlDto;
+import ua.reed.aws.s3.dto.PreSignedUrlDto;
+import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
 import ua.reed.aws.s3.service.PreSignedUrlService;
 import ua.reed.aws.s3.service.model.PreSignedUrlOptions;
 import ua.reed.aws.s3.utils.S3Utils;
 
 import java.net.URL;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class S3PreSignedUrlService implements PreSignedUrlService {
 
+    private static final int MAX_PART_NUMBER = 10_000;
+
     private final S3Presigner s3Presigner;
+    private final PreSignedUrlCache preSignedUrlCache;
+    private final PreSignedUrlProperties preSignedUrlProperties;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public URL generatePreSignedUrlForObject(final PreSignedUrlOptions options) {
@@ -27,31 +40,123 @@ public class S3PreSignedUrlService implements PreSignedUrlService {
         S3Utils.validateBucketName(bucketName);
         String objectKey = options.getObjectKey();
         S3Utils.validateObjectKey(objectKey);
+        return getPreSignedRequest(options).url();
+    }
+
+    /**
+     * Signing is local CPU work, so the keys are signed on a parallel stream rather than on the I/O executors.
+     */
+    @Override
+    public List<PreSignedUrlDto> generatePreSignedUrls(final String bucketName,
+                                                       final List<String> objectKeys,
+                                                       final PreSignedUrlOperationType operationType) {
+        S3Utils.validateBucketName(bucketName);
+        if (objectKeys == null || objectKeys.isEmpty()) {
+            throw new IllegalArgumentException("Parameter [objectKeys] must not be null or empty!");
+        }
+        if (objectKeys.size() > this.preSignedUrlProperties.getBulkMaximumKeys()) {
+            throw new IllegalArgumentException("At most %d keys can be signed at once".formatted(this.preSignedUrlProperties.getBulkMaximumKeys()));
+        }
+        Objects.requireNonNull(operationType, "Parameter [operationType] must not be null!");
+        if (operationType == PreSignedUrlOperationType.UPLOAD_PART) {
+            throw new IllegalArgumentException("Part urls are signed per multipart upload, see MultipartUploadService");
+        }
+        objectKeys.forEach(S3Utils::validateObjectKey);
+        return objectKeys.parallelStream()
+                .map(objectKey -> {
+                    PresignedRequest request = getPreSignedRequest(
+                            PreSignedUrlOptions.builder()
+                                    .bucketName(bucketName)
+                                    .objectKey(objectKey)
+                                    .operationType(operationType)
+                                    .build()
+                    );
+                    return new PreSignedUrlDto(objectKey, request.url().toExternalForm(), request.expiration());
+                })
+                .toList();
+    }
+
+    @Override
+    public List<PreSignedPartUrlDto> generatePreSignedUploadPartUrls(final String bucketName,
+                                                                     final String objectKey,
+                                                                     final String uploadId,
+                                                                     final int firstPartNumber,
+                                                                     final int partCount) {
+        S3Utils.validateBucketName(bucketName);
+        S3Utils.validateObjectKey(objectKey);
+        if (uploadId == null || uploadId.isEmpty()) {
+            throw new IllegalArgumentException("Parameter [uploadId] must not be null or empty!");
+        }
+        if (partCount < 1 || partCount > this.preSignedUrlProperties.getBulkMaximumKeys()) {
+            throw new IllegalArgumentException("Between 1 and %d part urls can be signed at once".formatted(this.preSignedUrlProperties.getBulkMaximumKeys()));
+        }
+        if (firstPartNumber < 1 || firstPartNumber + partCount - 1 > MAX_PART_NUMBER) {
+            throw new IllegalArgumentException("Part numbers must be between 1 and %d".formatted(MAX_PART_NUMBER));
+        }
+        return IntStream.range(firstPartNumber, firstPartNumber + partCount)
+                .parallel()
+                .mapToObj(partNumber -> {
+                    PresignedRequest request = presign(
+                            PreSignedUrlOptions.builder()
+                                    .bucketName(bucketName)
+                                    .objectKey(objectKey)
+                                    .operationType(PreSignedUrlOperationType.UPLOAD_PART)
+                                    .uploadId(uploadId)
+                                    .partNumber(partNumber)
+                                    .build()
+                    );
+                    return new PreSignedPartUrlDto(partNumber, request.url().toExternalForm(), request.expiration());
+                })
+                .toList();
+    }
+
+    /**
+     * Upload urls are bound to the MD5 of the file or to a single upload part, so only urls without a body are reused.
+     */
+    private PresignedRequest getPreSignedRequest(final PreSignedUrlOptions options) {
+        if (options.getOperationType() == PreSignedUrlOperationType.PUT_OBJECT
+                || options.getOperationType() == PreSignedUrlOperationType.UPLOAD_PART) {
+            return presign(options);
+        }
+        return this.preSignedUrlCache.get(
+                options.getOperationType(),
+                options.getBucketName(),
+                options.getObjectKey(),
+                key -> presign(options)
+        );
+    }
+
+    private PresignedRequest presign(final PreSignedUrlOptions options) {
+        String bucketName = options.getBucketName();
+        String objectKey = options.getObjectKey();
+        Duration signatureDuration = this.preSignedUrlProperties.getSignatureDuration(options.getOperationType());
+        Timer.Sample sample = Timer.start(this.meterRegistry);
         try {
-            URL preSignedUrl = null;
-            switch (options.getOperationType()) {
-                case GET_OBJECT -> {
-                    PresignedGetObjectRequest request = s3Presigner.presignGetObject(S3Utils.buildPreSignedGetObjectRequest(bucketName, objectKey));
-                    preSignedUrl = request.url();
-                }
-                case PUT_OBJECT -> {
-                    PresignedPutObjectRequest request = s3Presigner.presignPutObject(S3Utils.buildPreSignedPutObjectRequest(options));
-                    preSignedUrl = request.url();
-                }
-                case DELETE_OBJECT -> {
-                    PresignedDeleteObjectRequest request = s3Presigner.presignDeleteObject(S3Utils.buildPreSignedDeleteObjectRequest(bucketName, objectKey));
-                    preSignedUrl = request.url();
-                }
-            }
-            log.info(
-                    "Generated pre-signed url for objectKey={}, bucket={}, result={}",
+            PresignedRequest preSignedRequest = switch (options.getOperationType()) {
+                case GET_OBJECT -> s3Presigner.presignGetObject(S3Utils.buildPreSignedGetObjectRequest(bucketName, objectKey, signatureDuration));
+                case PUT_OBJECT -> s3Presigner.presignPutObject(S3Utils.buildPreSignedPutObjectRequest(options, signatureDuration));
+                case DELETE_OBJECT -> s3Presigner.presignDeleteObject(S3Utils.buildPreSignedDeleteObjectRequest(bucketName, objectKey, signatureDuration));
+                case UPLOAD_PART -> s3Presigner.presignUploadPart(S3Utils.buildPreSignedUploadPartRequest(options, signatureDuration));
+            };
+            // the url itself is a bearer credential, it is never logged
+            log.debug(
+                    "Generated pre-signed url for objectKey={}, bucket={}, operation={}, expiration={}",
                     objectKey,
                     bucketName,
-                    Objects.requireNonNull(preSignedUrl, "Pre-signed url must not be null!").toExternalForm()
+                    options.getOperationType(),
+                    preSignedRequest.expiration()
             );
-            return preSignedUrl;
+            return preSignedRequest;
         } catch (Exception ex) {
             throw new RuntimeException("Cannot generate pre-signed url for objectKey='%s', bucket='%s'".formatted(objectKey, bucketName), ex);
+        } finally {
+            sample.stop(
+                    Timer.builder("s3.presign")
+                            .description("Time to sign a pre-signed url")
+                            .tag("operation", options.getOperationType().name())
+                            .publishPercentileHistogram()
+                            .register(this.meterRegistry)
+            );
         }
     }
 }
@@ -0,0 +1,140 @@
+package ua.reed.aws.s3.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import ua.reed.aws.s3.config.ExecutorConfig;
+import ua.reed.aws.s3.config.S3TransferProperties;
+import ua.reed.aws.s3.dto.ObjectInfoDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Downloads an object as a number of byte ranges fetched concurrently, each over its own connection.
+ * The ranges are requested with {@code If-Match} on the ETag of the HEAD response, so a concurrent
+ * overwrite fails the download instead of mixing two versions of the object.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3RangedDownloader {
+
+    private final S3Client s3Client;
+    private final S3TransferProperties transferProperties;
+    @Qualifier(ExecutorConfig.S3_TRANSFER_EXECUTOR)
+    private final Executor transferExecutor;
+
+    /**
+     * Writes the object to the stream in order, keeping at most {@code parallelism} ranges in memory.
+     */
+    public void download(final String bucketName, final ObjectInfoDto objectInfo, final OutputStream outputStream) throws IOException {
+        long partSize = this.transferProperties.getParallelDownloadPartSize().toBytes();
+        long contentLength = objectInfo.contentLength();
+        Deque<CompletableFuture<byte[]>> window = new ArrayDeque<>();
+        long nextOffset = 0;
+        try {
+            while (nextOffset < contentLength || !window.isEmpty()) {
+                while (nextOffset < contentLength && window.size() < this.transferProperties.getParallelDownloadParallelism()) {
+                    long start = nextOffset;
+                    long end = Math.min(start + partSize, contentLength) - 1;
+                    window.add(CompletableFuture.supplyAsync(() -> fetchRange(bucketName, objectInfo, start, end), this.transferExecutor));
+                    nextOffset = end + 1;
+                }
+                outputStream.write(window.poll().join());
+            }
+            outputStream.flush();
+            log.info("Downloaded object={} from bucket={} in {} byte ranges", objectInfo.objectKey(), bucketName, (contentLength + partSize - 1) / partSize);
+        } finally {
+            // ranges which haven't been started yet are skipped, running ones are simply left to finish
+            window.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * Writes every range straight to its position in the file, so the ranges don't need to be buffered in memory.
+     */
+    public void download(final String bucketName, final ObjectInfoDto objectInfo, final Path target) throws IOException {
+        long partSize = this.transferProperties.getParallelDownloadPartSize().toBytes();
+        long contentLength = objectInfo.contentLength();
+        Semaphore rangesInFlight = new Semaphore(this.transferProperties.getParallelDownloadParallelism());
+        List<CompletableFuture<Void>> ranges = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long start = 0; start < contentLength; start += partSize) {
+                rangesInFlight.acquire();
+                long rangeStart = start;
+                long rangeEnd = Math.min(start + partSize, contentLength) - 1;
+                ranges.add(
+                        CompletableFuture.runAsync(() -> writeRange(bucketName, objectInfo, rangeStart, rangeEnd, channel), this.transferExecutor)
+                                .whenComplete((result, ex) -> rangesInFlight.release())
+                );
+            }
+            CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).join();
+            log.info("Downloaded object={} from bucket={} to file {}", objectInfo.objectKey(), bucketName, target);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download of object='%s' was interrupted".formatted(objectInfo.objectKey()), ex);
+        } finally {
+            ranges.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private byte[] fetchRange(final String bucketName, final ObjectInfoDto objectInfo, final long start, final long end) {
+        byte[] buffer = new byte[(int) (end - start + 1)];
+        try (InputStream inputStream = openRange(bucketName, objectInfo, start, end)) {
+            int read = inputStream.readNBytes(buffer, 0, buffer.length);
+            if (read != buffer.length) {
+                throw new IOException("Expected %d bytes of range %d-%d, got %d".formatted(buffer.length, start, end, read));
+            }
+            return buffer;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeRange(final String bucketName, final ObjectInfoDto objectInfo, final long start, final long end, final FileChannel channel) {
+        ByteBuffer buffer = ByteBuffer.allocate((int) this.transferProperties.getDownloadBufferSize().toBytes());
+        long position = start;
+        try (InputStream inputStream = openRange(bucketName, objectInfo, start, end)) {
+            int read;
+            while ((read = inputStream.read(buffer.array())) != -1) {
+                buffer.limit(read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                buffer.clear();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ResponseInputStream<GetObjectResponse> openRange(final String bucketName, final ObjectInfoDto objectInfo, final long start, final long end) {
+        return this.s3Client.getObject(
+                GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(objectInfo.objectKey())
+                        .range("bytes=%d-%d".formatted(start, end))
+                        .ifMatch(objectInfo.eTag())
+                        .build()
+        );
+    }
+}
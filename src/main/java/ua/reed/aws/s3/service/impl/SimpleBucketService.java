@@ -14,26 +14,41 @@ import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
 import software.amazon.awssdk.services.s3.model.HeadBucketResponse;
 import software.amazon.awssdk.services.s3.model.PutBucketVersioningRequest;
 import software.amazon.awssdk.services.s3.model.VersioningConfiguration;
+import ua.reed.aws.s3.cache.BucketMetadataCache;
+import ua.reed.aws.s3.cache.ObjectMetadataCache;
+import ua.reed.aws.s3.dto.BucketDeletionDto;
 import ua.reed.aws.s3.dto.CreateBucketResponseDto;
 import ua.reed.aws.s3.dto.GetBucketResponseDto;
 import ua.reed.aws.s3.dto.BucketInfoDto;
+import ua.reed.aws.s3.dto.ObjectOperationResultDto;
 import ua.reed.aws.s3.service.BucketService;
+import ua.reed.aws.s3.service.model.BulkOperationOptions;
 import ua.reed.aws.s3.utils.S3Utils;
 
 import java.time.ZoneId;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SimpleBucketService implements BucketService {
 
+    private static final long DELETION_PROGRESS_INTERVAL = 10_000;
+
     private final S3Client s3Client;
+    private final BucketMetadataCache bucketMetadataCache;
+    private final ObjectMetadataCache objectMetadataCache;
+    private final S3BucketEmptier bucketEmptier;
 
     @Override
     public CreateBucketResponseDto createBucket(final String bucketName) {
         S3Utils.validateBucketName(bucketName);
         try {
             CreateBucketResponse response = this.s3Client.createBucket(CreateBucketRequest.builder().bucket(bucketName).build());
+            this.bucketMetadataCache.invalidate(bucketName);
             log.info("Created a bucket '{}'", bucketName);
             return CreateBucketResponseDto.of(bucketName, response.responseMetadata().requestId(), response.location());
         } catch (Exception ex) {
@@ -45,13 +60,11 @@ public class SimpleBucketService implements BucketService {
     public GetBucketResponseDto getBucket(final String bucketName) {
         S3Utils.validateBucketName(bucketName);
         try {
-            Bucket bucket = this.s3Client.listBuckets()
-                    .buckets()
-                    .stream()
-                    .filter(b -> b.name().equals(bucketName))
-                    .findAny()
-                    .orElseThrow();
-            return GetBucketResponseDto.of(bucket.name(), bucket.creationDate().atZone(ZoneId.systemDefault()));
+            GetBucketResponseDto bucket = this.bucketMetadataCache.getBuckets(this::listBuckets).get(bucketName);
+            if (bucket == null) {
+                throw new NoSuchElementException("No bucket '%s' in the account".formatted(bucketName));
+            }
+            return bucket;
         } catch (Exception ex) {
             throw new RuntimeException("Failed to get bucket '%s'".formatted(bucketName), ex);
         }
@@ -68,6 +81,7 @@ public class SimpleBucketService implements BucketService {
                     )
                     .build()
             );
+            this.bucketMetadataCache.invalidate(bucketName);
             log.info("Updated versioning for bucket '{}' with value '{}'", bucketName, bucketVersioningStatus.name());
         } catch (Exception ex) {
             throw new RuntimeException("Failed to update versioning for bucket '%s'".formatted(bucketName), ex);
@@ -79,6 +93,7 @@ public class SimpleBucketService implements BucketService {
         S3Utils.validateBucketName(bucketName);
         try {
             DeleteBucketResponse response = this.s3Client.deleteBucket(DeleteBucketRequest.builder().bucket(bucketName).build());
+            this.bucketMetadataCache.invalidate(bucketName);
             log.info("Deleted a bucket '{}', status: {}", bucketName, response.sdkHttpResponse().statusCode());
         } catch (Exception ex) {
             throw new RuntimeException("Failed to delete a bucket '%s'".formatted(bucketName));
@@ -86,22 +101,98 @@ public class SimpleBucketService implements BucketService {
     }
 
     @Override
-    public BucketInfoDto getBucketInfo(final String bucketName) {
+    public BucketDeletionDto forceDeleteBucket(final String bucketName) {
+        return forceDeleteBucket(bucketName, BulkOperationOptions.none());
+    }
+
+    /**
+     * Deletes every object version and delete marker, aborts the unfinished multipart uploads, then deletes the bucket.
+     * The bucket is kept when some version could not be deleted, or when {@code options} stopped the deletion.
+     */
+    @Override
+    public BucketDeletionDto forceDeleteBucket(final String bucketName, final BulkOperationOptions<ObjectOperationResultDto> options) {
         S3Utils.validateBucketName(bucketName);
         try {
-            HeadBucketResponse response = this.s3Client.headBucket(
-                    HeadBucketRequest.builder()
-                            .bucket(bucketName)
-                            .build()
+            long startedAt = System.nanoTime();
+            AtomicLong deleted = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            AtomicLong processed = new AtomicLong();
+            boolean completed = this.bucketEmptier.deleteVersions(
+                    bucketName,
+                    options.getOnSelected() == null ? objectKey -> true : options.getOnSelected(),
+                    result -> {
+                        if (result.success()) {
+                            deleted.incrementAndGet();
+                            this.objectMetadataCache.invalidate(bucketName, result.objectKey());
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        long count = processed.incrementAndGet();
+                        if (count % DELETION_PROGRESS_INTERVAL == 0) {
+                            log.info("Deleting bucket '{}': {} versions processed, {} per second",
+                                    bucketName, count, Math.round(count * 1e9 / (System.nanoTime() - startedAt)));
+                        }
+                        if (options.getOnResult() != null) {
+                            options.getOnResult().accept(result);
+                        }
+                    }
             );
-            return BucketInfoDto.builder()
-                    .bucketName(bucketName)
-                    .bucketRegion(response.bucketRegion())
-                    .bucketLocationName(response.bucketLocationName())
-                    .locationType(response.bucketLocationTypeAsString())
-                    .build();
+            if (!completed) {
+                log.info("Deleting bucket '{}' was stopped after {} versions", bucketName, deleted.get());
+                return BucketDeletionDto.of(bucketName, false, deleted.get(), failed.get(), 0, elapsedMillis(startedAt));
+            }
+            if (failed.get() > 0) {
+                throw new IllegalStateException("%d versions could not be deleted".formatted(failed.get()));
+            }
+            long abortedUploads = this.bucketEmptier.abortMultipartUploads(bucketName);
+            this.s3Client.deleteBucket(DeleteBucketRequest.builder().bucket(bucketName).build());
+            this.bucketMetadataCache.invalidate(bucketName);
+            BucketDeletionDto deletion = BucketDeletionDto.of(
+                    bucketName, true, deleted.get(), failed.get(), abortedUploads, elapsedMillis(startedAt)
+            );
+            log.info("Deleted a bucket '{}' with {} versions and {} multipart uploads in {} ms, {} versions per second",
+                    bucketName, deletion.deletedVersions(), abortedUploads, deletion.elapsedMillis(), Math.round(deletion.versionsPerSecond()));
+            return deletion;
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to delete a bucket '%s'".formatted(bucketName), ex);
+        }
+    }
+
+    @Override
+    public BucketInfoDto getBucketInfo(final String bucketName) {
+        S3Utils.validateBucketName(bucketName);
+        try {
+            return this.bucketMetadataCache.getBucketInfo(bucketName, this::headBucket);
         } catch (Exception ex) {
             throw new RuntimeException("Cannot get info for bucket='%s'".formatted(bucketName), ex);
         }
     }
+
+    private static long elapsedMillis(final long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    private Map<String, GetBucketResponseDto> listBuckets() {
+        return this.s3Client.listBuckets()
+                .buckets()
+                .stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        Bucket::name,
+                        b -> GetBucketResponseDto.of(b.name(), b.creationDate().atZone(ZoneId.systemDefault()))
+                ));
+    }
+
+    private BucketInfoDto headBucket(final String bucketName) {
+        HeadBucketResponse response = this.s3Client.headBucket(
+                HeadBucketRequest.builder()
+                        .bucket(bucketName)
+                        .build()
+        );
+        return BucketInfoDto.builder()
+                .bucketName(bucketName)
+                .bucketRegion(response.bucketRegion())
+                .bucketLocationName(response.bucketLocationName())
+                .locationType(response.bucketLocationTypeAsString())
+                .build();
+    }
 }
@@ -0,0 +1,8 @@
+package ua.reed.aws.s3.service.model;
+
+/**
+ * Outcome of a bulk operation run with {@link BulkOperationOptions}. The results of the objects are only reported
+ * to {@link BulkOperationOptions#getOnResult()}, none is kept, so the operation may span any number of objects.
+ */
+public record BulkOperationCounts(long succeeded, long skipped, long failed) {
+}
@@ -0,0 +1,42 @@
+package ua.reed.aws.s3.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Lets a caller follow, stop and resume a bulk operation (batch delete, bulk tagging, copy, move or bucket deletion).
+ *
+ * @param <R> result reported for every object of the operation
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOperationOptions<R> {
+
+    /**
+     * Resumes the operation after this key: a prefix is listed from the following key on,
+     * a key list is skipped up to and including it. Not supported by a bucket deletion, which lists from the start.
+     */
+    private String startAfter;
+    /**
+     * Sees every selected key in selection order before its object is processed, returning {@code false} stops
+     * the selection. Objects already being processed still complete.
+     */
+    private Predicate<String> onSelected;
+    /**
+     * Notified of the result of every object as soon as it is known, on any thread.
+     */
+    private Consumer<R> onResult;
+
+    public static <R> BulkOperationOptions<R> none() {
+        return new BulkOperationOptions<>();
+    }
+}
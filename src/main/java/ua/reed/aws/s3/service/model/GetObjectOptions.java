@@ -0,0 +1,32 @@
+package ua.reed.aws.s3.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GetObjectOptions {
+
+    private String bucketName;
+    private String objectKey;
+    /**
+     * Value of an HTTP {@code Range} header, e.g. {@code bytes=0-1023}, the whole object is returned when absent.
+     */
+    private String range;
+    /**
+     * ETag of a copy the caller already has, S3 answers with 304 instead of the body when it still matches.
+     */
+    private String ifNoneMatch;
+    /**
+     * S3 answers with 304 instead of the body when the object hasn't changed since then, ignored when {@link #ifNoneMatch} is set.
+     */
+    private Instant ifModifiedSince;
+}
@@ -0,0 +1,27 @@
+package ua.reed.aws.s3.service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListObjectsOptions {
+
+    private String bucketName;
+    private String prefix;
+    /**
+     * Groups the keys sharing a part of the key up to the delimiter into a single common prefix entry.
+     */
+    private String delimiter;
+    private String startAfter;
+    /**
+     * Maximum number of entries returned in total, the whole listing is returned when absent.
+     */
+    private Integer maxKeys;
+}
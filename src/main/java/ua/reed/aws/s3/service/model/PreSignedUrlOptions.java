@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.springframework.web.multipart.MultipartFile;
 import ua.reed.aws.s3.enums.PreSignedUrlOperationType;
 
 @Getter
@@ -18,5 +17,13 @@ public class PreSignedUrlOptions {
     private String bucketName;
     private String objectKey;
     private PreSignedUrlOperationType operationType;
-    private MultipartFile multipartFile;
+    /**
+     * Base64 encoded MD5 of the body an upload url is signed for, the upload must send the same {@code Content-MD5}.
+     */
+    private String contentMd5;
+    /**
+     * Multipart upload and part an {@code UPLOAD_PART} url is signed for.
+     */
+    private String uploadId;
+    private Integer partNumber;
 }
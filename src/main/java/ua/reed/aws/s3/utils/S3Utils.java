@@ -1,17 +1,35 @@
 package ua.reed.aws.s3.utils;
 
-import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.model.DeleteObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
-import software.amazon.awssdk.utils.Md5Utils;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+import ua.reed.aws.s3.dto.CopyObjectsRequestDto;
 import ua.reed.aws.s3.service.model.PreSignedUrlOptions;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @UtilityClass
 public class S3Utils {
@@ -28,9 +46,31 @@ public class S3Utils {
         }
     }
 
-    public GetObjectPresignRequest buildPreSignedGetObjectRequest(String bucketName, String objectKey) {
+    public void validateObjectSelection(List<String> objectKeys, String prefix) {
+        if ((objectKeys == null || objectKeys.isEmpty()) && (prefix == null || prefix.isEmpty())) {
+            throw new IllegalArgumentException("Either [objectKeys] or [prefix] must not be null or empty!");
+        }
+    }
+
+    /**
+     * A listed prefix is read while the copies are made, so a target inside it would be listed and copied again.
+     */
+    public void validateCopyRequest(CopyObjectsRequestDto request) {
+        validateBucketName(request.sourceBucketName());
+        validateBucketName(request.targetBucketName());
+        validateObjectSelection(request.objectKeys(), request.prefix());
+        boolean byPrefix = request.objectKeys() == null || request.objectKeys().isEmpty();
+        String sourcePrefix = byPrefix ? request.prefix() : "";
+        String targetPrefix = request.targetPrefix() == null ? "" : request.targetPrefix();
+        if (request.sourceBucketName().equals(request.targetBucketName())
+                && (targetPrefix.equals(sourcePrefix) || byPrefix && targetPrefix.startsWith(sourcePrefix))) {
+            throw new IllegalArgumentException("Objects cannot be copied to themselves or into the prefix they are listed from");
+        }
+    }
+
+    public GetObjectPresignRequest buildPreSignedGetObjectRequest(String bucketName, String objectKey, Duration signatureDuration) {
         return GetObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(10))
+                .signatureDuration(signatureDuration)
                 .getObjectRequest(
                         GetObjectRequest.builder()
                                 .key(objectKey)
@@ -40,23 +80,36 @@ public class S3Utils {
                 .build();
     }
 
-    @SneakyThrows
-    public PutObjectPresignRequest buildPreSignedPutObjectRequest(PreSignedUrlOptions options) {
+    public PutObjectPresignRequest buildPreSignedPutObjectRequest(PreSignedUrlOptions options, Duration signatureDuration) {
         return PutObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(10))
+                .signatureDuration(signatureDuration)
                 .putObjectRequest(
                         PutObjectRequest.builder()
                                 .key(options.getObjectKey())
                                 .bucket(options.getBucketName())
-                                .contentMD5(Md5Utils.md5AsBase64(options.getMultipartFile().getBytes()))
+                                .contentMD5(options.getContentMd5())
+                                .build()
+                )
+                .build();
+    }
+
+    public UploadPartPresignRequest buildPreSignedUploadPartRequest(PreSignedUrlOptions options, Duration signatureDuration) {
+        return UploadPartPresignRequest.builder()
+                .signatureDuration(signatureDuration)
+                .uploadPartRequest(
+                        UploadPartRequest.builder()
+                                .key(options.getObjectKey())
+                                .bucket(options.getBucketName())
+                                .uploadId(options.getUploadId())
+                                .partNumber(options.getPartNumber())
                                 .build()
                 )
                 .build();
     }
 
-    public DeleteObjectPresignRequest buildPreSignedDeleteObjectRequest(String bucketName, String objectKey) {
+    public DeleteObjectPresignRequest buildPreSignedDeleteObjectRequest(String bucketName, String objectKey, Duration signatureDuration) {
         return DeleteObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(10))
+                .signatureDuration(signatureDuration)
                 .deleteObjectRequest(
                         DeleteObjectRequest.builder()
                                 .key(objectKey)
@@ -65,4 +118,112 @@ public class S3Utils {
                 )
                 .build();
     }
+
+    /**
+     * Copies the given stream in chunks of {@code bufferSize} bytes, so the heap usage doesn't depend on the stream length.
+     *
+     * @return number of copied bytes
+     */
+    public long copy(InputStream inputStream, OutputStream outputStream, int bufferSize) throws IOException {
+        byte[] buffer = new byte[bufferSize];
+        long total = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            total += read;
+        }
+        outputStream.flush();
+        return total;
+    }
+
+    /**
+     * Copies an S3 object body to the output and closes it. If the output fails (usually the client went away)
+     * the S3 stream is aborted before it is closed, as closing it first would drain the rest of the object.
+     */
+    public void transfer(ResponseInputStream<?> objectStream, OutputStream outputStream, int bufferSize) throws IOException {
+        try (objectStream) {
+            try {
+                copy(objectStream, outputStream, bufferSize);
+            } catch (IOException | RuntimeException ex) {
+                objectStream.abort();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Evaluates the client validators of a conditional GET against the current version of an object (RFC 9110).
+     * {@code If-None-Match} takes precedence, {@code If-Modified-Since} is only looked at when it is absent.
+     */
+    public boolean isNotModified(String eTag, Instant lastModified, String ifNoneMatch, Instant ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            if (eTag == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String value = candidate.trim();
+                if (value.equals("*") || weakETag(value).equals(weakETag(eTag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ifModifiedSince != null && lastModified != null) {
+            // HTTP dates have a precision of one second
+            return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(ifModifiedSince);
+        }
+        return false;
+    }
+
+    /**
+     * Parses an HTTP date header value, an invalid date is ignored as if the header was absent.
+     */
+    public Instant parseHttpDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the tasks of a bounded fan-out: every task holds one of the {@code parallelism} permits
+     * until it is done, so getting all of them back means the last one finished. Called from a {@code finally},
+     * so a fan-out that failed or was interrupted returns only once no task is left to call its listener.
+     * An interrupt doesn't cut the wait short, the interrupt status is kept.
+     */
+    public void awaitCompletion(Semaphore tasksInFlight, int parallelism) {
+        tasksInFlight.acquireUninterruptibly(parallelism);
+    }
+
+    /**
+     * Unlike {@link Stream#takeWhile}, which sees a whole listing page as soon as its first entry is consumed,
+     * the entries are passed to {@code predicate} one at a time as they are consumed.
+     */
+    public <T> Stream<T> takeWhileConsumed(Stream<T> stream, Predicate<? super T> predicate) {
+        Spliterator<T> source = stream.spliterator();
+        Spliterator<T> taken = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            private boolean stopped;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                return !this.stopped && source.tryAdvance(entry -> {
+                    if (predicate.test(entry)) {
+                        action.accept(entry);
+                    } else {
+                        this.stopped = true;
+                    }
+                }) && !this.stopped;
+            }
+        };
+        return StreamSupport.stream(taken, false).onClose(stream::close);
+    }
+
+    private String weakETag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
 }
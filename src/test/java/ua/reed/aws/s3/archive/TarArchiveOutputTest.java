@@ -0,0 +1,158 @@
+package ua.reed.aws.s3.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TarArchiveOutputTest {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final Instant LAST_MODIFIED = Instant.ofEpochSecond(1_700_000_000L);
+
+    @Test
+    void regularFileHasUstarHeaderAndPaddedContent() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        TarArchiveOutput output = new TarArchiveOutput(archive);
+        byte[] content = "hello".getBytes(StandardCharsets.US_ASCII);
+
+        output.putEntry("dir/file.txt", content.length, LAST_MODIFIED);
+        output.write(content, 0, content.length);
+        output.closeEntry();
+        output.finish();
+
+        byte[] tar = archive.toByteArray();
+        assertEquals(4 * BLOCK_SIZE, tar.length);
+        assertEquals("dir/file.txt", field(tar, 0, 100));
+        assertEquals("0000644", field(tar, 100, 8));
+        assertEquals(5, octal(tar, 124, 12));
+        assertEquals(LAST_MODIFIED.getEpochSecond(), octal(tar, 136, 12));
+        assertEquals('0', tar[156]);
+        assertEquals("ustar", field(tar, 257, 6));
+        assertEquals("00", field(tar, 263, 2));
+        assertEquals(checksum(tar, 0), octal(tar, 148, 8));
+        assertArrayEquals(content, Arrays.copyOfRange(tar, BLOCK_SIZE, BLOCK_SIZE + content.length));
+        assertArrayEquals(new byte[3 * BLOCK_SIZE - content.length], Arrays.copyOfRange(tar, BLOCK_SIZE + content.length, tar.length));
+    }
+
+    @Test
+    void directoryHasNoContent() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        TarArchiveOutput output = new TarArchiveOutput(archive);
+
+        output.putEntry("dir/", 123, LAST_MODIFIED);
+        output.closeEntry();
+
+        byte[] tar = archive.toByteArray();
+        assertEquals(BLOCK_SIZE, tar.length);
+        assertEquals("0000755", field(tar, 100, 8));
+        assertEquals(0, octal(tar, 124, 12));
+        assertEquals('5', tar[156]);
+        assertEquals(checksum(tar, 0), octal(tar, 148, 8));
+    }
+
+    @Test
+    void longNameIsWrittenToPaxHeader() throws IOException {
+        String name = "a/".repeat(60) + "file.txt";
+        byte[] tar = entry(name, 0);
+
+        assertEquals('x', tar[156]);
+        String records = paxRecords(tar);
+        assertEquals(record("path", name), records);
+        int entryHeader = BLOCK_SIZE + padded(records.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals('0', tar[entryHeader + 156]);
+        assertEquals(name.substring(0, 100), field(tar, entryHeader, 100));
+        assertEquals(checksum(tar, entryHeader), octal(tar, entryHeader + 148, 8));
+    }
+
+    @Test
+    void nonAsciiNameIsWrittenToPaxHeader() throws IOException {
+        String name = "\u0437\u0432\u0456\u0442 \u00fc.txt";
+        byte[] tar = entry(name, 0);
+
+        assertEquals('x', tar[156]);
+        assertEquals(record("path", name), paxRecords(tar));
+        assertEquals("____ _.txt", field(tar, 2 * BLOCK_SIZE, 100));
+    }
+
+    @Test
+    void sizeOfEightGigabytesIsWrittenToPaxHeader() throws IOException {
+        long size = 8L * 1024 * 1024 * 1024;
+        byte[] tar = entry("big.bin", size);
+
+        assertEquals('x', tar[156]);
+        assertEquals(record("size", Long.toString(size)), paxRecords(tar));
+        assertEquals("big.bin", field(tar, 2 * BLOCK_SIZE, 100));
+        assertEquals(0, octal(tar, 2 * BLOCK_SIZE + 124, 12));
+    }
+
+    @Test
+    void paxRecordLengthCountsItsOwnDigits() throws IOException {
+        // around 100 bytes the length itself needs one more digit
+        for (int nameLength = 101; nameLength <= 1010; nameLength++) {
+            String records = paxRecords(entry("n".repeat(nameLength), 0));
+            int declared = Integer.parseInt(records.substring(0, records.indexOf(' ')));
+            assertEquals(records.getBytes(StandardCharsets.UTF_8).length, declared, "name of " + nameLength + " bytes");
+        }
+    }
+
+    @Test
+    void contentMustMatchTheSize() throws IOException {
+        TarArchiveOutput output = new TarArchiveOutput(new ByteArrayOutputStream());
+        output.putEntry("file.txt", 2, LAST_MODIFIED);
+
+        assertThrows(IOException.class, () -> output.write(new byte[3], 0, 3));
+        output.write(new byte[1], 0, 1);
+        assertThrows(IOException.class, output::closeEntry);
+    }
+
+    private static byte[] entry(final String name, final long size) throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        new TarArchiveOutput(archive).putEntry(name, size, LAST_MODIFIED);
+        return archive.toByteArray();
+    }
+
+    private static String paxRecords(final byte[] tar) {
+        int length = (int) octal(tar, 124, 12);
+        return new String(tar, BLOCK_SIZE, length, StandardCharsets.UTF_8);
+    }
+
+    private static String record(final String key, final String value) {
+        String record = " " + key + "=" + value + "\n";
+        int length = record.getBytes(StandardCharsets.UTF_8).length;
+        int total = length + Integer.toString(length).length();
+        total = length + Integer.toString(total).length();
+        return total + record;
+    }
+
+    private static String field(final byte[] tar, final int offset, final int length) {
+        int end = offset;
+        while (end < offset + length && tar[end] != 0) {
+            end++;
+        }
+        return new String(tar, offset, end - offset, StandardCharsets.US_ASCII);
+    }
+
+    private static long octal(final byte[] tar, final int offset, final int length) {
+        return Long.parseLong(field(tar, offset, length).trim(), 8);
+    }
+
+    private static long checksum(final byte[] tar, final int offset) {
+        long checksum = 0;
+        for (int i = offset; i < offset + BLOCK_SIZE; i++) {
+            checksum += i >= offset + 148 && i < offset + 156 ? ' ' : tar[i] & 0xff;
+        }
+        return checksum;
+    }
+
+    private static int padded(final int length) {
+        return (length + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+    }
+}
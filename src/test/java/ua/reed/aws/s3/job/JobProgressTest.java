@@ -0,0 +1,89 @@
+package ua.reed.aws.s3.job;
+
+import org.junit.jupiter.api.Test;
+import ua.reed.aws.s3.dto.JobDto;
+import ua.reed.aws.s3.enums.JobType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobProgressTest {
+
+    @Test
+    void checkpointWaitsForEveryEarlierKey() {
+        JobProgress progress = new JobProgress(JobDto.queued("job", JobType.DELETE_OBJECTS, null));
+        progress.select("a");
+        progress.select("b");
+        progress.select("c");
+
+        progress.succeeded("c");
+        assertNull(progress.snapshot().lastKey());
+        progress.succeeded("b");
+        assertNull(progress.snapshot().lastKey());
+        progress.succeeded("a");
+        assertEquals("c", progress.snapshot().lastKey());
+    }
+
+    @Test
+    void skippedAndFailedKeysCompleteToo() {
+        JobProgress progress = new JobProgress(JobDto.queued("job", JobType.COPY_OBJECTS, null));
+        progress.select("a");
+        progress.select("b");
+        progress.select("c");
+
+        progress.skipped("a");
+        assertEquals("a", progress.snapshot().lastKey());
+        progress.succeeded("c");
+        assertEquals("a", progress.snapshot().lastKey());
+        progress.failed("b");
+
+        JobDto snapshot = progress.snapshot();
+        assertEquals("c", snapshot.lastKey());
+        assertEquals(1, snapshot.succeeded());
+        assertEquals(1, snapshot.skipped());
+        assertEquals(1, snapshot.failed());
+    }
+
+    @Test
+    void resumedJobKeepsItsCheckpointUntilTheNextKeyIsDone() {
+        JobDto checkpoint = JobDto.queued("job", JobType.TAG_OBJECTS, null);
+        checkpoint = new JobDto(checkpoint.jobId(), checkpoint.type(), checkpoint.status(), null, checkpoint.createdAt(),
+                null, null, 5, 0, 0, "e", null);
+        JobProgress progress = new JobProgress(checkpoint);
+        progress.select("f");
+        progress.select("g");
+
+        progress.succeeded("g");
+        assertEquals("e", progress.snapshot().lastKey());
+        progress.succeeded("f");
+        assertEquals("g", progress.snapshot().lastKey());
+        assertEquals(7, progress.snapshot().succeeded());
+    }
+
+    @Test
+    void unselectedKeyDoesNotMoveTheCheckpoint() {
+        JobProgress progress = new JobProgress(JobDto.queued("job", JobType.DELETE_OBJECTS, null));
+        progress.select("a");
+
+        progress.succeeded("z");
+        assertNull(progress.snapshot().lastKey());
+        progress.succeeded("a");
+        assertEquals("a", progress.snapshot().lastKey());
+    }
+
+    @Test
+    void nothingIsSelectedOnceCancelledOrStopped() {
+        JobProgress cancelled = new JobProgress(JobDto.queued("job", JobType.DELETE_OBJECTS, null));
+        assertTrue(cancelled.select("a"));
+        cancelled.cancel();
+        assertFalse(cancelled.select("b"));
+        assertFalse(cancelled.select());
+
+        JobProgress stopped = new JobProgress(JobDto.queued("job", JobType.DELETE_OBJECTS, null));
+        stopped.stop();
+        assertFalse(stopped.select("a"));
+        assertFalse(stopped.select());
+    }
+}
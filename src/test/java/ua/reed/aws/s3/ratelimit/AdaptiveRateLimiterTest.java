@@ -0,0 +1,65 @@
+package ua.reed.aws.s3.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveRateLimiterTest {
+
+    @Test
+    void initialRateIsKeptWithinTheLimits() {
+        assertEquals(200, limiter(1000, Duration.ZERO).getRate());
+        assertEquals(10, limiter(1, Duration.ZERO).getRate());
+    }
+
+    @Test
+    void throttleDecreasesTheRateOncePerCooldown() {
+        AdaptiveRateLimiter limiter = limiter(100, Duration.ofMinutes(1));
+
+        assertTrue(limiter.onThrottle());
+        assertEquals(50, limiter.getRate());
+        assertFalse(limiter.onThrottle());
+        assertEquals(50, limiter.getRate());
+    }
+
+    @Test
+    void throttleDoesNotGoBelowTheMinimumRate() {
+        AdaptiveRateLimiter limiter = limiter(100, Duration.ZERO);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.onThrottle());
+        }
+        assertEquals(10, limiter.getRate());
+    }
+
+    @Test
+    void successIncreasesTheRateUpToTheMaximum() {
+        AdaptiveRateLimiter limiter = limiter(100, Duration.ZERO);
+
+        limiter.onSuccess();
+        assertEquals(100.5, limiter.getRate(), 1e-9);
+
+        AdaptiveRateLimiter atMaximum = limiter(200, Duration.ZERO);
+        atMaximum.onSuccess();
+        assertEquals(200, atMaximum.getRate());
+    }
+
+    @Test
+    void acquireWaitsOnceTheBurstIsUsed() throws InterruptedException {
+        // 10 permits per second with a burst of one second
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(10, 10, 10, 1, 0.5, Duration.ZERO, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.acquire());
+        }
+        assertTrue(limiter.acquire() > 0);
+    }
+
+    private static AdaptiveRateLimiter limiter(final double initialRate, final Duration decreaseCooldown) {
+        return new AdaptiveRateLimiter(initialRate, 10, 200, 50, 0.5, decreaseCooldown, Duration.ofSeconds(1));
+    }
+}
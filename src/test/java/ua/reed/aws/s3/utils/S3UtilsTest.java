@@ -0,0 +1,106 @@
+package ua.reed.aws.s3.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3UtilsTest {
+
+    private static final String ETAG = "\"5d41402abc4b2a76b9719d911017c592\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2024-03-01T10:15:30.250Z");
+
+    @Test
+    void matchingETagIsNotModified() {
+        assertTrue(S3Utils.isNotModified(ETAG, LAST_MODIFIED, ETAG, null));
+        assertFalse(S3Utils.isNotModified(ETAG, LAST_MODIFIED, "\"other\"", null));
+    }
+
+    @Test
+    void weakETagsMatch() {
+        assertTrue(S3Utils.isNotModified(ETAG, LAST_MODIFIED, "W/" + ETAG, null));
+        assertTrue(S3Utils.isNotModified("W/" + ETAG, LAST_MODIFIED, ETAG, null));
+    }
+
+    @Test
+    void anyETagMatches() {
+        assertTrue(S3Utils.isNotModified(ETAG, LAST_MODIFIED, "*", null));
+    }
+
+    @Test
+    void anyETagOfTheListMatches() {
+        assertTrue(S3Utils.isNotModified(ETAG, LAST_MODIFIED, "\"other\", " + ETAG + " ,\"another\"", null));
+        assertFalse(S3Utils.isNotModified(ETAG, LAST_MODIFIED, "\"other\", \"another\"", null));
+    }
+
+    @Test
+    void objectWithoutETagIsModified() {
+        assertFalse(S3Utils.isNotModified(null, LAST_MODIFIED, "*", null));
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() {
+        Instant later = LAST_MODIFIED.plusSeconds(60);
+        assertFalse(S3Utils.isNotModified(ETAG, LAST_MODIFIED, "\"other\"", later));
+    }
+
+    @Test
+    void ifModifiedSinceComparesWholeSeconds() {
+        Instant sameSecond = Instant.parse("2024-03-01T10:15:30Z");
+        assertTrue(S3Utils.isNotModified(ETAG, LAST_MODIFIED, null, sameSecond));
+        assertTrue(S3Utils.isNotModified(ETAG, LAST_MODIFIED, null, sameSecond.plusSeconds(1)));
+        assertFalse(S3Utils.isNotModified(ETAG, LAST_MODIFIED, null, sameSecond.minusSeconds(1)));
+    }
+
+    @Test
+    void withoutConditionsIsModified() {
+        assertFalse(S3Utils.isNotModified(ETAG, LAST_MODIFIED, null, null));
+        assertFalse(S3Utils.isNotModified(ETAG, null, null, LAST_MODIFIED));
+    }
+
+    @Test
+    void takeWhileConsumedTestsOneElementAtATime() {
+        AtomicInteger tested = new AtomicInteger();
+        List<Integer> taken = S3Utils.takeWhileConsumed(Stream.of(1, 2, 3, 4, 5), value -> {
+            tested.incrementAndGet();
+            return value < 3;
+        }).collect(Collectors.toList());
+
+        assertEquals(List.of(1, 2), taken);
+        assertEquals(3, tested.get());
+    }
+
+    @Test
+    void takeWhileConsumedDoesNotFetchFurtherPages() {
+        AtomicInteger fetchedPages = new AtomicInteger();
+        AtomicInteger tested = new AtomicInteger();
+        Stream<String> objects = Stream.of(List.of("a", "b", "c"), List.of("d", "e"), List.of("f"))
+                .peek(page -> fetchedPages.incrementAndGet())
+                .flatMap(List::stream);
+
+        List<String> taken = S3Utils.takeWhileConsumed(objects, key -> {
+            tested.incrementAndGet();
+            return !key.equals("b");
+        }).collect(Collectors.toList());
+
+        assertEquals(List.of("a"), taken);
+        assertEquals(2, tested.get());
+        assertEquals(1, fetchedPages.get());
+    }
+
+    @Test
+    void takeWhileConsumedClosesTheSource() {
+        AtomicInteger closed = new AtomicInteger();
+        try (Stream<Integer> taken = S3Utils.takeWhileConsumed(Stream.of(1, 2).onClose(closed::incrementAndGet), value -> true)) {
+            assertEquals(2, taken.count());
+        }
+        assertEquals(1, closed.get());
+    }
+}